@@ -0,0 +1,96 @@
+package com.bingyu.holidays.benchmark;
+
+import com.bingyu.holidays.config.CountryCodeLoader;
+import com.bingyu.holidays.dto.CountryHolidayCount;
+import com.bingyu.holidays.dto.LastHolidayDTO;
+import com.bingyu.holidays.index.CommonHolidayRegistry;
+import com.bingyu.holidays.index.HolidayCalendarRegistry;
+import com.bingyu.holidays.index.HolidayIndexRegistry;
+import com.bingyu.holidays.service.HolidayService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@link HolidayService} hot paths against an in-memory
+ * client. Tasks run on the calling thread so results reflect CPU and
+ * allocation cost rather than scheduling; run with {@code -prof gc} for
+ * allocation rates.
+ *
+ * <p>The index, calendar and common-holiday registries reuse results while
+ * the client returns the same list instance. {@code freshLists=true} hands
+ * out a new instance on every fetch, so each call measures the full
+ * computation; {@code false} measures the memoized path a warm cache serves.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HolidayServiceBenchmark {
+
+    @Param({"2", "10", "50"})
+    public int countryCount;
+
+    @Param({"10", "50", "200"})
+    public int holidaysPerYear;
+
+    @Param({"true", "false"})
+    public boolean freshLists;
+
+    private HolidayService service;
+    private List<String> countries;
+    private int year;
+
+    @Setup
+    public void setUp() {
+        year = LocalDate.now().getYear();
+        countries = new ArrayList<>(countryCount);
+        for (int i = 0; i < countryCount; i++) {
+            countries.add("" + (char) ('A' + i / 26) + (char) ('A' + i % 26));
+        }
+        Set<String> valid = Set.copyOf(countries);
+        CountryCodeLoader codeLoader = new CountryCodeLoader(WebClient.builder(), new ObjectMapper()) {
+            @Override
+            public boolean isValid(String code) {
+                return valid.contains(code);
+            }
+        };
+        InMemoryHolidayApiClient client =
+                new InMemoryHolidayApiClient(countries, year - 1, year, holidaysPerYear, 42L, freshLists);
+        service = new HolidayService(client, new HolidayIndexRegistry(), new HolidayCalendarRegistry(),
+                new CommonHolidayRegistry(), Runnable::run, codeLoader, countryCount, 20);
+    }
+
+    @Benchmark
+    public List<LastHolidayDTO> lastThreeHolidays() {
+        return service.getLastThreeHolidays(countries.get(0));
+    }
+
+    @Benchmark
+    public List<CountryHolidayCount> weekdayCount() {
+        return service.countWeekdayHolidays(year, countries);
+    }
+
+    @Benchmark
+    public List<LastHolidayDTO> commonHolidays() {
+        return service.findCommonHolidays(year, countries.get(0), countries.get(countries.size() - 1));
+    }
+}
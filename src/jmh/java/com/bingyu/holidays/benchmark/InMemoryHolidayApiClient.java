@@ -0,0 +1,56 @@
+package com.bingyu.holidays.benchmark;
+
+import com.bingyu.holidays.client.HolidayApiClient;
+import com.bingyu.holidays.model.Holiday;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * {@link HolidayApiClient} serving generated, pre-built holiday lists from
+ * memory, so benchmarks measure service-side work only. With
+ * {@code freshLists} every fetch returns a new list instance, like a changed
+ * upstream answer, so nothing memoized per list instance is reused.
+ */
+public class InMemoryHolidayApiClient implements HolidayApiClient {
+
+    private final Map<String, List<Holiday>> data = new HashMap<>();
+    private final boolean freshLists;
+
+    public InMemoryHolidayApiClient(Collection<String> countries, int fromYear, int toYear,
+                                    int holidaysPerYear, long seed, boolean freshLists) {
+        this.freshLists = freshLists;
+        Random random = new Random(seed);
+        for (String country : countries) {
+            for (int year = fromYear; year <= toYear; year++) {
+                data.put(key(year, country), generate(random, year, holidaysPerYear));
+            }
+        }
+    }
+
+    @Override
+    public List<Holiday> fetchHolidays(int year, String countryCode) {
+        List<Holiday> holidays = data.getOrDefault(key(year, countryCode), List.of());
+        return freshLists ? new ArrayList<>(holidays) : holidays;
+    }
+
+    private static List<Holiday> generate(Random random, int year, int count) {
+        int daysInYear = LocalDate.of(year, 1, 1).lengthOfYear();
+        List<Holiday> holidays = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate date = LocalDate.ofYearDay(year, 1 + random.nextInt(daysInYear));
+            holidays.add(new Holiday(date, "Holiday " + i, "Feiertag " + i));
+        }
+        holidays.sort((a, b) -> a.getDate().compareTo(b.getDate()));
+        return List.copyOf(holidays);
+    }
+
+    private static String key(int year, String countryCode) {
+        return year + "-" + countryCode;
+    }
+}
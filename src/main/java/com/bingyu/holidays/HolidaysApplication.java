@@ -1,9 +1,18 @@
 package com.bingyu.holidays;
 
+import com.bingyu.holidays.config.HolidayRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+// Outermost, so cache hits skip the Resilience4j aspects and their fallbacks pass the cache's unless check.
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+@EnableScheduling
+@ImportRuntimeHints(HolidayRuntimeHints.class)
 public class HolidaysApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,30 @@
+package com.bingyu.holidays.cache;
+
+import java.util.Map;
+
+/**
+ * A cache level below the in-memory Caffeine tier of a {@link TieredCaffeineCache}.
+ * Implementations swallow their own I/O failures: a broken tier behaves like a miss.
+ */
+public interface CacheTier {
+
+    String getCacheName();
+
+    /**
+     * Reads an entry, or returns {@code null} if it is absent or unavailable.
+     */
+    Object read(Object key);
+
+    void write(Object key, Object value);
+
+    void delete(Object key);
+
+    void clear();
+
+    /**
+     * Entries to pre-load into memory when the cache is created; empty if the tier cannot enumerate them.
+     */
+    default Map<Object, Object> loadAll() {
+        return Map.of();
+    }
+}
@@ -0,0 +1,113 @@
+package com.bingyu.holidays.cache;
+
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.model.HolidayNames;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compact binary encoding of a holiday list for the shared cache tier.
+ *
+ * <p>Layout: a version byte, the list size as a varint, then per holiday the
+ * zig-zag varint difference between its epoch day and the previous one, its
+ * name and its local name. Strings are a varint header followed by UTF-8
+ * bytes: {@code 0} is null, {@code 1} means "same as the name" (local names
+ * usually are) and {@code n + 2} prefixes {@code n} bytes.
+ */
+public final class HolidayCodec {
+    private static final int VERSION = 1;
+    private static final int NULL = 0;
+    private static final int SAME_AS_NAME = 1;
+    private static final int LENGTH_OFFSET = 2;
+
+    private HolidayCodec() {
+    }
+
+    public static byte[] encode(List<Holiday> holidays) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + holidays.size() * 24);
+        out.write(VERSION);
+        writeVarInt(out, holidays.size());
+        long previousDay = 0;
+        for (Holiday holiday : holidays) {
+            long day = holiday.getDate().toEpochDay();
+            long delta = day - previousDay;
+            writeVarInt(out, (delta << 1) ^ (delta >> 63));
+            previousDay = day;
+            writeString(out, holiday.getName());
+            if (holiday.getLocalName() != null && Objects.equals(holiday.getLocalName(), holiday.getName())) {
+                writeVarInt(out, SAME_AS_NAME);
+            } else {
+                writeString(out, holiday.getLocalName());
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static List<Holiday> decode(byte[] bytes) {
+        int[] pos = {0};
+        int version = bytes[pos[0]++];
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported holiday encoding version " + version);
+        }
+        int size = (int) readVarInt(bytes, pos);
+        List<Holiday> holidays = new ArrayList<>(size);
+        long day = 0;
+        for (int i = 0; i < size; i++) {
+            long zigzag = readVarInt(bytes, pos);
+            day += (zigzag >>> 1) ^ -(zigzag & 1);
+            String name = readString(bytes, pos, null);
+            String localName = readString(bytes, pos, name);
+            holidays.add(new Holiday(LocalDate.ofEpochDay(day), name, localName));
+        }
+        return holidays;
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarInt(out, NULL);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, utf8.length + LENGTH_OFFSET);
+        out.writeBytes(utf8);
+    }
+
+    private static String readString(byte[] bytes, int[] pos, String name) {
+        int header = (int) readVarInt(bytes, pos);
+        if (header == NULL) {
+            return null;
+        }
+        if (header == SAME_AS_NAME) {
+            return name;
+        }
+        int length = header - LENGTH_OFFSET;
+        String value = new String(bytes, pos[0], length, StandardCharsets.UTF_8);
+        pos[0] += length;
+        return HolidayNames.intern(value);
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarInt(byte[] bytes, int[] pos) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,97 @@
+package com.bingyu.holidays.cache;
+
+import com.bingyu.holidays.client.HolidayApiClient;
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.model.HolidayKey;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+/**
+ * Caffeine loader that gives the holiday cache stale-while-revalidate semantics
+ * together with {@code refreshAfterWrite}. A stale entry is returned as is while
+ * one background reload per key fetches it again.
+ *
+ * <p>Lists for past years never change, so their reload keeps the old value
+ * without calling upstream. If a refresh fails or returns nothing, the stale
+ * list is kept too. Initial loads are left to the {@code @Cacheable} method,
+ * so {@link #load} reports every miss as absent. A refresh that changes a list
+ * is reported to the refresh listener, which passes it on to the lower tiers.
+ *
+ * <p>With a {@link SharedCacheTier}, replicas take turns: only the replica
+ * that claims a key's refresh for the refresh interval calls upstream, and its
+ * write to the shared tier tells the others to drop their copy. The others
+ * adopt the shared entry if it already differs from theirs, or keep their
+ * list until then.
+ */
+@Slf4j
+public class HolidayRefreshLoader implements CacheLoader<Object, Object> {
+
+    private final HolidayApiClient upstream;
+    private final SharedCacheTier sharedTier;
+    private final Duration refreshInterval;
+    private final Clock clock;
+    private volatile BiConsumer<Object, Object> refreshListener = (key, value) -> { };
+
+    /**
+     * @param sharedTier the tier whose refresh claims coordinate replicas, or {@code null}
+     */
+    public HolidayRefreshLoader(HolidayApiClient upstream, SharedCacheTier sharedTier, Duration refreshInterval) {
+        this(upstream, sharedTier, refreshInterval, Clock.systemDefaultZone());
+    }
+
+    HolidayRefreshLoader(HolidayApiClient upstream, SharedCacheTier sharedTier, Duration refreshInterval,
+                         Clock clock) {
+        this.upstream = upstream;
+        this.sharedTier = sharedTier;
+        this.refreshInterval = refreshInterval;
+        this.clock = clock;
+    }
+
+    public void setRefreshListener(BiConsumer<Object, Object> refreshListener) {
+        this.refreshListener = refreshListener;
+    }
+
+    @Override
+    public Object load(Object key) {
+        return null;
+    }
+
+    @Override
+    public CompletableFuture<Object> asyncReload(Object key, Object oldValue, Executor executor) {
+        HolidayKey holidayKey = HolidayKey.parse(key.toString());
+        if (holidayKey.year() < LocalDate.now(clock).getYear()) {
+            return CompletableFuture.completedFuture(oldValue);
+        }
+        return CompletableFuture.supplyAsync(() -> reload(key, holidayKey, oldValue), executor);
+    }
+
+    private Object reload(Object key, HolidayKey holidayKey, Object oldValue) {
+        if (sharedTier != null && !sharedTier.claimRefresh(key, refreshInterval)) {
+            Object shared = sharedTier.read(key);
+            if (shared == null || shared.equals(oldValue)) {
+                return oldValue;
+            }
+            log.debug("Refresh of {} claimed by another replica, adopting the shared holidays", holidayKey);
+            return shared;
+        }
+        List<Holiday> fresh = upstream.fetchHolidays(holidayKey.year(), holidayKey.countryCode());
+        if (fresh == null || fresh.isEmpty()) {
+            log.warn("Refresh of {} returned nothing, keeping the cached holidays", holidayKey);
+            return oldValue;
+        }
+        // Keeping the old instance when nothing changed lets identity-keyed indexes stay valid.
+        if (fresh.equals(oldValue)) {
+            return oldValue;
+        }
+        refreshListener.accept(key, fresh);
+        return fresh;
+    }
+}
@@ -0,0 +1,348 @@
+package com.bingyu.holidays.cache;
+
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.model.HolidayKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Durable record of the last successful upstream answer per {@code (year, country)},
+ * served when the upstream fails instead of an empty list.
+ *
+ * <p>The file is an append-only log: a magic header, then one record per
+ * changed list holding its length, a CRC32 and the key, fetch time and
+ * {@link HolidayCodec} bytes. Appending only when a list differs from the
+ * stored one keeps writes rare. On open the log is replayed, later records
+ * winning, and a torn or corrupt tail from a crash is cut off. Once the log
+ * holds mostly superseded records it is rewritten with the live ones.
+ *
+ * <p>Lists served from this store are {@link StaleHolidays}, so responses
+ * built from them can say so. Keys are counted as degraded until their next
+ * successful fetch.
+ */
+@Slf4j
+public class LastKnownGoodStore implements MeterBinder, Closeable {
+    private static final int MAGIC = 0x484C4B47; // "HLKG"
+    private static final int HEADER_SIZE = Integer.BYTES;
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    private static final int COMPACTION_SLACK = 128;
+
+    private final Path file;
+    private final Clock clock;
+    private final Map<HolidayKey, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<HolidayKey> degraded = ConcurrentHashMap.newKeySet();
+
+    private FileChannel channel;
+    private int records;
+    private Counter servedFromStore;
+    private Counter servedEmpty;
+
+    public LastKnownGoodStore(Path file) {
+        this(file, Clock.systemUTC());
+    }
+
+    LastKnownGoodStore(Path file, Clock clock) {
+        this.file = file;
+        this.clock = clock;
+        open();
+    }
+
+    private record Entry(byte[] encoded, long storedAt, StaleHolidays holidays) {
+    }
+
+    /**
+     * Holidays served from the store rather than fetched from upstream. The
+     * type lets the {@code holidays} cache refuse them, so the next request
+     * tries the upstream again, and lets a response tell it read them.
+     */
+    public static final class StaleHolidays extends AbstractList<Holiday> implements RandomAccess {
+        private static final StaleHolidays EMPTY = new StaleHolidays(List.of());
+
+        private final List<Holiday> holidays;
+
+        StaleHolidays(List<Holiday> holidays) {
+            this.holidays = List.copyOf(holidays);
+        }
+
+        @Override
+        public Holiday get(int index) {
+            return holidays.get(index);
+        }
+
+        @Override
+        public int size() {
+            return holidays.size();
+        }
+    }
+
+    /**
+     * Records a successful fetch and clears the key's degraded flag. Writes
+     * to disk only when the list differs from the stored one; I/O errors are
+     * logged and leave the in-memory copy updated.
+     */
+    public void put(int year, String countryCode, List<Holiday> holidays) {
+        HolidayKey key = new HolidayKey(year, countryCode);
+        degraded.remove(key);
+        if (holidays == null || holidays.isEmpty() || holidays instanceof StaleHolidays) {
+            return;
+        }
+        byte[] encoded = HolidayCodec.encode(holidays);
+        synchronized (this) {
+            Entry current = entries.get(key);
+            if (current != null && Arrays.equals(current.encoded(), encoded)) {
+                return;
+            }
+            long now = clock.millis();
+            entries.put(key, new Entry(encoded, now, new StaleHolidays(holidays)));
+            append(key, now, encoded);
+        }
+    }
+
+    /**
+     * Returns the last known holidays for the key, or an empty list if there
+     * are none, and marks the key as degraded. Either way the list is a
+     * {@link StaleHolidays}.
+     */
+    public List<Holiday> fallback(int year, String countryCode) {
+        HolidayKey key = new HolidayKey(year, countryCode);
+        degraded.add(key);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            count(servedEmpty);
+            log.warn("No last-known-good holidays for {}", key);
+            return StaleHolidays.EMPTY;
+        }
+        count(servedFromStore);
+        log.warn("Serving {} from the last-known-good store, fetched {} ago", key,
+                Duration.ofMillis(clock.millis() - entry.storedAt()));
+        return entry.holidays();
+    }
+
+    public boolean isDegraded(int year, String countryCode) {
+        return degraded.contains(new HolidayKey(year, countryCode));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Replays the log and opens it for appending. The file is locked, so a
+     * second process (or application context) sharing the path only reads it
+     * and keeps its own updates in memory.
+     */
+    private synchronized void open() {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            if (!tryLock(channel)) {
+                log.warn("Last-known-good store {} is in use elsewhere; updates stay in memory", file);
+                channel.close();
+                channel = null;
+                replay();
+                return;
+            }
+            long valid = replay();
+            if (valid < HEADER_SIZE) {
+                channel.truncate(0);
+                channel.write(ByteBuffer.allocate(HEADER_SIZE).putInt(0, MAGIC), 0);
+                valid = HEADER_SIZE;
+            } else if (valid < channel.size()) {
+                log.warn("Dropping {} bytes of torn or corrupt records from {}", channel.size() - valid, file);
+                channel.truncate(valid);
+            }
+            channel.position(valid);
+            log.info("Loaded {} last-known-good holiday lists from {}", entries.size(), file);
+        } catch (IOException e) {
+            log.error("Cannot open last-known-good store {}; keeping it in memory only", file, e);
+            closeQuietly();
+        }
+    }
+
+    private static boolean tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock() != null;
+        } catch (OverlappingFileLockException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads all intact records and returns the offset just past the last one,
+     * or 0 if the file is missing or not a store.
+     */
+    private long replay() throws IOException {
+        if (!Files.exists(file) || Files.size(file) < HEADER_SIZE) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                log.warn("{} is not a last-known-good store, starting a new one", file);
+                return 0;
+            }
+            long offset = HEADER_SIZE;
+            int length;
+            while ((length = readRecord(in)) > 0) {
+                records++;
+                offset += 2L * Integer.BYTES + length;
+            }
+            return offset;
+        }
+    }
+
+    /**
+     * Reads one record into {@link #entries} and returns its body length, or
+     * -1 at the end of the log or at a torn or corrupt record.
+     */
+    private int readRecord(DataInputStream input) throws IOException {
+        try {
+            int length = input.readInt();
+            if (length <= 0 || length > MAX_RECORD_SIZE) {
+                return -1;
+            }
+            long crc = input.readInt() & 0xFFFFFFFFL;
+            byte[] body = input.readNBytes(length);
+            if (body.length < length || crc32(body) != crc) {
+                return -1;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            long storedAt = in.readLong();
+            HolidayKey key = new HolidayKey(in.readInt(), in.readUTF());
+            byte[] encoded = in.readNBytes(in.readInt());
+            entries.put(key, new Entry(encoded, storedAt, new StaleHolidays(HolidayCodec.decode(encoded))));
+            return length;
+        } catch (EOFException e) {
+            return -1;
+        }
+    }
+
+    private synchronized void append(HolidayKey key, long storedAt, byte[] encoded) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            writeRecord(channel, key, storedAt, encoded);
+            channel.force(false);
+            records++;
+            if (records > 2 * entries.size() + COMPACTION_SLACK) {
+                compact();
+            }
+        } catch (IOException e) {
+            log.error("Failed to append {} to last-known-good store {}", key, file, e);
+        }
+    }
+
+    /** Rewrites the log with only the live records and swaps it in atomically. */
+    private void compact() throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            out.write(ByteBuffer.allocate(HEADER_SIZE).putInt(0, MAGIC));
+            for (Map.Entry<HolidayKey, Entry> entry : entries.entrySet()) {
+                writeRecord(out, entry.getKey(), entry.getValue().storedAt(), entry.getValue().encoded());
+            }
+            out.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        FileChannel previous = channel;
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        channel.tryLock();
+        previous.close();
+        log.info("Compacted last-known-good store {} from {} to {} records", file, records, entries.size());
+        records = entries.size();
+    }
+
+    private static void writeRecord(FileChannel out, HolidayKey key, long storedAt, byte[] encoded)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(encoded.length + 32);
+        DataOutputStream body = new DataOutputStream(bytes);
+        body.writeLong(storedAt);
+        body.writeInt(key.year());
+        body.writeUTF(key.countryCode());
+        body.writeInt(encoded.length);
+        body.write(encoded);
+        byte[] record = bytes.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Integer.BYTES + record.length)
+                .putInt(record.length)
+                .putInt((int) crc32(record))
+                .put(record)
+                .flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static long crc32(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    private static void count(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("holidays.fallback.store.entries", entries, Map::size)
+                .description("Holiday lists held by the last-known-good store")
+                .register(registry);
+        Gauge.builder("holidays.fallback.degraded", degraded, Set::size)
+                .description("Holiday lists currently served from the last-known-good store")
+                .register(registry);
+        servedFromStore = Counter.builder("holidays.fallback.served")
+                .tag("source", "store")
+                .register(registry);
+        servedEmpty = Counter.builder("holidays.fallback.served")
+                .tag("source", "empty")
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void close() {
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close last-known-good store {}", file, e);
+            }
+            channel = null;
+        }
+    }
+}
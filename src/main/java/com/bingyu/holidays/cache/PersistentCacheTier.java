@@ -0,0 +1,173 @@
+package com.bingyu.holidays.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local file-backed second cache tier. Each entry is stored as one JSON file
+ * named after its key, so a restarted node can re-populate its in-memory tier
+ * from disk instead of going back to the upstream API.
+ */
+@Slf4j
+public class PersistentCacheTier implements CacheTier, MeterBinder {
+    private static final String SUFFIX = ".json";
+
+    private final String cacheName;
+    private final Path directory;
+    private final ObjectMapper mapper;
+    private final JavaType valueType;
+    private final Duration timeToLive;
+    private final Clock clock;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+
+    public PersistentCacheTier(String cacheName, Path directory, ObjectMapper mapper,
+                               JavaType valueType, Duration timeToLive) {
+        this(cacheName, directory, mapper, valueType, timeToLive, Clock.systemUTC());
+    }
+
+    PersistentCacheTier(String cacheName, Path directory, ObjectMapper mapper,
+                        JavaType valueType, Duration timeToLive, Clock clock) {
+        this.cacheName = cacheName;
+        this.directory = directory;
+        this.mapper = mapper;
+        this.valueType = valueType;
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create cache directory " + directory, e);
+        }
+    }
+
+    @Override
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    /**
+     * Reads an entry, or returns {@code null} if it is absent, expired or unreadable.
+     */
+    @Override
+    public Object read(Object key) {
+        Path file = fileFor(key);
+        Object value = readFile(file);
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    @Override
+    public void write(Object key, Object value) {
+        Path file = fileFor(key);
+        try {
+            Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            mapper.writerFor(valueType).writeValue(tmp.toFile(), value);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writes.incrementAndGet();
+        } catch (IOException e) {
+            log.warn("Failed to persist cache entry {} in {}: {}", key, cacheName, e.getMessage());
+        }
+    }
+
+    @Override
+    public void delete(Object key) {
+        try {
+            Files.deleteIfExists(fileFor(key));
+        } catch (IOException e) {
+            log.warn("Failed to delete cache entry {} in {}: {}", key, cacheName, e.getMessage());
+        }
+    }
+
+    @Override
+    public void clear() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clear persisted cache {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    /**
+     * Loads every unexpired entry on disk, keyed by the entry's string key.
+     */
+    @Override
+    public Map<Object, Object> loadAll() {
+        Map<Object, Object> entries = new LinkedHashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                Object value = readFile(file);
+                if (value != null) {
+                    String name = file.getFileName().toString();
+                    entries.put(name.substring(0, name.length() - SUFFIX.length()), value);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to load persisted cache {}: {}", cacheName, e.getMessage());
+        }
+        return entries;
+    }
+
+    private Object readFile(Path file) {
+        try {
+            if (!Files.isRegularFile(file) || isExpired(Files.getLastModifiedTime(file))) {
+                return null;
+            }
+            return mapper.readValue(file.toFile(), valueType);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable cache file {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isExpired(FileTime modified) {
+        return modified.toInstant().plus(timeToLive).isBefore(Instant.now(clock));
+    }
+
+    private Path fileFor(Object key) {
+        String safe = String.valueOf(key).replaceAll("[^A-Za-z0-9._-]", "_");
+        return directory.resolve(safe + SUFFIX);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.persistent.gets", hits, AtomicLong::get)
+                .tag("cache", cacheName).tag("result", "hit")
+                .description("Lookups answered by the persistent cache tier")
+                .register(registry);
+        FunctionCounter.builder("cache.persistent.gets", misses, AtomicLong::get)
+                .tag("cache", cacheName).tag("result", "miss")
+                .description("Lookups not found in the persistent cache tier")
+                .register(registry);
+        FunctionCounter.builder("cache.persistent.puts", writes, AtomicLong::get)
+                .tag("cache", cacheName)
+                .description("Entries written to the persistent cache tier")
+                .register(registry);
+    }
+}
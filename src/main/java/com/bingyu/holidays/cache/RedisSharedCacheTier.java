@@ -0,0 +1,297 @@
+package com.bingyu.holidays.cache;
+
+import com.bingyu.holidays.model.Holiday;
+import io.lettuce.core.event.EventBus;
+import io.lettuce.core.event.connection.ConnectionActivatedEvent;
+import io.lettuce.core.event.connection.ConnectionDeactivatedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * {@link SharedCacheTier} on a Redis server, through Spring Data Redis.
+ * Holiday lists are stored with {@link HolidayCodec} under
+ * {@code keyPrefix + key} with a time-to-live, and refresh claims under
+ * {@code keyPrefix + "refresh:" + key}. Every write or delete is
+ * published on the invalidation channel, tagged with this replica's id so it
+ * ignores its own messages.
+ *
+ * <p>An unreachable server is treated as a miss, so the service degrades to
+ * per-replica caching rather than failing. After a failed command the server
+ * is not contacted again for {@code backoff}; operations in that window are
+ * skipped without an error or a log line. Pub/sub does not replay messages, so
+ * once a connection to the server has dropped, the next reconnect tells the
+ * listeners to drop everything they hold locally. If the invalidation channel
+ * cannot be subscribed to, e.g. at startup, subscribing is retried every
+ * {@code backoff} and the listeners resync once it succeeds.
+ */
+@Slf4j
+public class RedisSharedCacheTier implements SharedCacheTier, MeterBinder, Closeable {
+    private static final char SEPARATOR = '|';
+
+    private final String cacheName;
+    private final RedisTemplate<String, byte[]> template;
+    private final String keyPrefix;
+    private final Duration timeToLive;
+    private final String channel;
+    private final long backoffNanos;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Consumer<Object>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> resyncListeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean disconnected = new AtomicBoolean();
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Disposable connectionEvents;
+    private volatile Disposable subscribeRetry;
+    private volatile long retryAt;
+    private volatile boolean backingOff;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+
+    public RedisSharedCacheTier(String cacheName, RedisConnectionFactory connectionFactory, EventBus eventBus,
+                                String keyPrefix, Duration timeToLive, String channel, Duration backoff) {
+        this.cacheName = cacheName;
+        this.template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        this.keyPrefix = keyPrefix;
+        this.timeToLive = timeToLive;
+        this.channel = channel;
+        this.backoffNanos = backoff.toNanos();
+        this.listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.addMessageListener(
+                (message, pattern) -> onMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(channel));
+        this.connectionEvents = eventBus.get().subscribe(event -> {
+            if (event instanceof ConnectionDeactivatedEvent) {
+                disconnected.set(true);
+            } else if (event instanceof ConnectionActivatedEvent && disconnected.compareAndSet(true, false)) {
+                resync();
+            }
+        });
+        subscribe();
+    }
+
+    private void subscribe() {
+        try {
+            listenerContainer.start();
+        } catch (RuntimeException e) {
+            log.warn("Cannot subscribe to {} for cache '{}', retrying every {}: {}", channel, cacheName,
+                    Duration.ofNanos(backoffNanos), e.getMessage());
+        }
+        if (!listenerContainer.isListening()) {
+            disconnected.set(true);
+            subscribeRetry = Schedulers.boundedElastic().schedule(this::resubscribe, backoffNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void resubscribe() {
+        // A container whose first subscription failed only subscribes again after a restart.
+        listenerContainer.stop();
+        try {
+            listenerContainer.start();
+        } catch (RuntimeException e) {
+            log.debug("Subscribing to {} failed again: {}", channel, e.getMessage());
+        }
+        if (!listenerContainer.isListening()) {
+            subscribeRetry = Schedulers.boundedElastic().schedule(this::resubscribe, backoffNanos, TimeUnit.NANOSECONDS);
+        } else if (disconnected.compareAndSet(true, false)) {
+            resync();
+        }
+    }
+
+    @Override
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    @Override
+    public Object read(Object key) {
+        if (isBackingOff()) {
+            return null;
+        }
+        try {
+            byte[] data = template.opsForValue().get(keyPrefix + key);
+            if (data == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return HolidayCodec.decode(data);
+        } catch (RuntimeException e) {
+            failed("read", key, e);
+            return null;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void write(Object key, Object value) {
+        if (!(value instanceof List<?>) || isBackingOff()) {
+            return;
+        }
+        try {
+            template.opsForValue().set(keyPrefix + key, HolidayCodec.encode((List<Holiday>) value), timeToLive);
+            writes.incrementAndGet();
+            announce(key);
+        } catch (RuntimeException e) {
+            failed("write", key, e);
+        }
+    }
+
+    @Override
+    public void delete(Object key) {
+        if (isBackingOff()) {
+            return;
+        }
+        try {
+            template.delete(keyPrefix + key);
+            announce(key);
+        } catch (RuntimeException e) {
+            failed("delete", key, e);
+        }
+    }
+
+    @Override
+    public boolean claimRefresh(Object key, Duration window) {
+        if (isBackingOff()) {
+            return true;
+        }
+        try {
+            Boolean claimed = template.opsForValue().setIfAbsent(keyPrefix + "refresh:" + key,
+                    nodeId.getBytes(StandardCharsets.UTF_8), window);
+            return !Boolean.FALSE.equals(claimed);
+        } catch (RuntimeException e) {
+            failed("refresh claim", key, e);
+            return true;
+        }
+    }
+
+    /**
+     * Shared entries are left to expire; other replicas may still be filling them.
+     */
+    @Override
+    public void clear() {
+        log.info("Clearing cache '{}' leaves shared entries to expire after {}", cacheName, timeToLive);
+    }
+
+    @Override
+    public void onInvalidation(Consumer<Object> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void onResync(Runnable listener) {
+        resyncListeners.add(listener);
+    }
+
+    private void announce(Object key) {
+        template.convertAndSend(channel, (nodeId + SEPARATOR + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void onMessage(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        if (separator < 0 || message.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        String key = message.substring(separator + 1);
+        invalidations.incrementAndGet();
+        listeners.forEach(listener -> listener.accept(key));
+    }
+
+    private void resync() {
+        resyncs.incrementAndGet();
+        log.info("Reconnected to the shared cache; dropping local copies of '{}' in case invalidations were missed",
+                cacheName);
+        resyncListeners.forEach(Runnable::run);
+    }
+
+    private boolean isBackingOff() {
+        if (backingOff && System.nanoTime() - retryAt < 0) {
+            skipped.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private void failed(String operation, Object key, Exception e) {
+        errors.incrementAndGet();
+        retryAt = System.nanoTime() + backoffNanos;
+        backingOff = true;
+        log.warn("Shared cache {} of {} in {} failed: {}", operation, key, cacheName, e.getMessage());
+    }
+
+    @Override
+    public void close() {
+        connectionEvents.dispose();
+        Disposable retry = subscribeRetry;
+        if (retry != null) {
+            retry.dispose();
+        }
+        try {
+            listenerContainer.destroy();
+        } catch (Exception e) {
+            log.warn("Closing the invalidation subscriber of cache '{}' failed: {}", cacheName, e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.shared.gets", hits, AtomicLong::get)
+                .tag("cache", cacheName).tag("result", "hit")
+                .description("Lookups answered by the shared cache tier")
+                .register(registry);
+        FunctionCounter.builder("cache.shared.gets", misses, AtomicLong::get)
+                .tag("cache", cacheName).tag("result", "miss")
+                .description("Lookups not found in the shared cache tier")
+                .register(registry);
+        FunctionCounter.builder("cache.shared.puts", writes, AtomicLong::get)
+                .tag("cache", cacheName)
+                .description("Entries written to the shared cache tier")
+                .register(registry);
+        FunctionCounter.builder("cache.shared.errors", errors, AtomicLong::get)
+                .tag("cache", cacheName)
+                .description("Shared cache tier operations that failed")
+                .register(registry);
+        FunctionCounter.builder("cache.shared.skipped", skipped, AtomicLong::get)
+                .tag("cache", cacheName)
+                .description("Shared cache tier operations skipped while backing off after a failure")
+                .register(registry);
+        FunctionCounter.builder("cache.shared.invalidations", invalidations, AtomicLong::get)
+                .tag("cache", cacheName)
+                .description("Keys dropped locally because another replica changed them")
+                .register(registry);
+        FunctionCounter.builder("cache.shared.resyncs", resyncs, AtomicLong::get)
+                .tag("cache", cacheName)
+                .description("Local copies dropped after a reconnect, as invalidations may have been missed")
+                .register(registry);
+    }
+}
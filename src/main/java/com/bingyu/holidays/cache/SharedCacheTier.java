@@ -0,0 +1,30 @@
+package com.bingyu.holidays.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * A {@link CacheTier} shared by all replicas. Writes are announced to the other
+ * replicas, which drop their local copy of the key so their next read picks up
+ * the shared value.
+ */
+public interface SharedCacheTier extends CacheTier {
+
+    /**
+     * Registers a listener for keys written or deleted by other replicas.
+     */
+    void onInvalidation(Consumer<Object> listener);
+
+    /**
+     * Registers a listener for when invalidations may have been missed, e.g.
+     * after a reconnect; local copies of every key should then be dropped.
+     */
+    void onResync(Runnable listener);
+
+    /**
+     * Claims the refresh of {@code key} for {@code window}, so only one replica
+     * reloads it from upstream per window. Returns {@code true} if this replica
+     * should refresh, also when the tier is unavailable.
+     */
+    boolean claimRefresh(Object key, Duration window);
+}
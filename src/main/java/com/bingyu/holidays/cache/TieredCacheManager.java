@@ -0,0 +1,42 @@
+package com.bingyu.holidays.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link CaffeineCacheManager} that attaches the configured {@link CacheTier}s
+ * to each cache that has any. An optional {@link CacheLoader} makes the native
+ * caches loading caches, which {@code refreshAfterWrite} requires.
+ */
+public class TieredCacheManager extends CaffeineCacheManager {
+
+    private final Map<String, List<CacheTier>> tiers;
+
+    public TieredCacheManager(Caffeine<Object, Object> caffeine,
+                              Collection<String> cacheNames,
+                              Map<String, List<CacheTier>> tiers,
+                              CacheLoader<Object, Object> cacheLoader) {
+        this.tiers = tiers;
+        setAllowNullValues(false);
+        setCaffeine(caffeine);
+        if (cacheLoader != null) {
+            setCacheLoader(cacheLoader);
+        }
+        setCacheNames(cacheNames);
+    }
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        List<CacheTier> cacheTiers = tiers.getOrDefault(name, List.of());
+        if (cacheTiers.isEmpty()) {
+            return super.adaptCaffeineCache(name, cache);
+        }
+        return new TieredCaffeineCache(name, cache, cacheTiers);
+    }
+}
@@ -0,0 +1,150 @@
+package com.bingyu.holidays.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Caffeine cache backed by further {@link CacheTier}s, e.g. a local
+ * {@link PersistentCacheTier} and a {@link SharedCacheTier}. Reads fall through
+ * the tiers in order on an in-memory miss and writes go to every tier. Because
+ * it is still a {@link CaffeineCache}, Actuator binds the usual
+ * hit/miss/eviction metrics.
+ *
+ * <p>When another replica announces a new value through a shared tier, the
+ * key is dropped from memory and from the local tiers, so the next read
+ * fetches the shared value. If announcements may have been missed, all keys
+ * are dropped.
+ */
+@Slf4j
+public class TieredCaffeineCache extends CaffeineCache {
+
+    private final List<CacheTier> tiers;
+
+    public TieredCaffeineCache(String name, Cache<Object, Object> cache, List<CacheTier> tiers) {
+        super(name, cache, false);
+        this.tiers = List.copyOf(tiers);
+        preload();
+        for (CacheTier tier : this.tiers) {
+            if (tier instanceof SharedCacheTier shared) {
+                shared.onInvalidation(this::invalidateLocally);
+                shared.onResync(this::invalidateAllLocally);
+            }
+        }
+    }
+
+    private void preload() {
+        for (CacheTier tier : tiers) {
+            Map<Object, Object> entries = tier.loadAll();
+            if (!entries.isEmpty()) {
+                getNativeCache().putAll(entries);
+                log.info("Pre-loaded {} entries into cache '{}' from {}", entries.size(), getName(),
+                        tier.getClass().getSimpleName());
+            }
+        }
+    }
+
+    private void invalidateLocally(Object key) {
+        getNativeCache().invalidate(key);
+        for (CacheTier tier : tiers) {
+            if (!(tier instanceof SharedCacheTier)) {
+                tier.delete(key);
+            }
+        }
+    }
+
+    private void invalidateAllLocally() {
+        getNativeCache().invalidateAll();
+        for (CacheTier tier : tiers) {
+            if (!(tier instanceof SharedCacheTier)) {
+                tier.clear();
+            }
+        }
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = super.lookup(key);
+        if (value != null) {
+            return value;
+        }
+        for (int i = 0; i < tiers.size(); i++) {
+            value = tiers.get(i).read(key);
+            if (value != null) {
+                getNativeCache().put(key, value);
+                for (int j = 0; j < i; j++) {
+                    tiers.get(j).write(key, value);
+                }
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) fromStoreValue(value);
+        }
+        T loaded = super.get(key, valueLoader);
+        if (loaded != null) {
+            writeTiers(key, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, value);
+        writeTiers(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        if (existing == null) {
+            writeTiers(key, value);
+        }
+        return existing;
+    }
+
+    /**
+     * Writes a value that is already in memory, e.g. after a background refresh,
+     * to the lower tiers.
+     */
+    public void writeTiers(Object key, Object value) {
+        for (CacheTier tier : tiers) {
+            tier.write(key, value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        tiers.forEach(tier -> tier.delete(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        tiers.forEach(tier -> tier.delete(key));
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        tiers.forEach(CacheTier::clear);
+    }
+
+    @Override
+    public boolean invalidate() {
+        tiers.forEach(CacheTier::clear);
+        return super.invalidate();
+    }
+}
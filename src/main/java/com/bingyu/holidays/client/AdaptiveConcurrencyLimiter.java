@@ -0,0 +1,270 @@
+package com.bingyu.holidays.client;
+
+import com.bingyu.holidays.exception.UpstreamSaturatedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * AIMD concurrency limiter for upstream calls. The number of calls allowed in
+ * flight grows by about one per round of fast successful calls and shrinks
+ * multiplicatively on 429/5xx/transport errors, or in proportion to how much
+ * slower than the best observed latency a call was. Callers above the limit
+ * wait, in arrival order, up to {@code maxWait} instead of failing at once.
+ * Reactive callers use {@link #limit}, which queues without blocking a thread.
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    public enum Outcome {
+        /** The upstream answered normally. */
+        SUCCESS,
+        /** The upstream signalled or showed overload: 429, 5xx, timeouts, connection errors. */
+        OVERLOAD,
+        /** The call failed for a reason unrelated to load, e.g. 404; the limit is left alone. */
+        IGNORE
+    }
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final Duration maxWait;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition permitReleased = lock.newCondition();
+    private final Deque<PendingPermit> pending = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private long minLatencyNanos = Long.MAX_VALUE;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, double latencyTolerance, Duration maxWait) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Require 1 <= min <= initial <= max limit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be in (0, 1): " + backoffRatio);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.maxWait = maxWait;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Waits for a permit and returns the start time to pass to {@link #release}.
+     *
+     * @throws UpstreamSaturatedException if no permit frees up within {@code maxWait}
+     */
+    public long acquire() {
+        long remaining = maxWait.toNanos();
+        lock.lock();
+        try {
+            waiting++;
+            try {
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        rejected.incrementAndGet();
+                        throw new UpstreamSaturatedException("No upstream permit for " + name + " within "
+                                + maxWait.toMillis() + " ms (limit " + (int) limit + ")");
+                    }
+                    remaining = permitReleased.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UpstreamSaturatedException("Interrupted while waiting for an upstream permit for " + name);
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+            return System.nanoTime();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code call} once a permit is free, without blocking while it
+     * waits, and releases the permit with the outcome {@code outcomeOf} gives
+     * for its error, if any. Fails with {@link UpstreamSaturatedException} if
+     * no permit frees up within {@code maxWait}.
+     */
+    public <T> Mono<T> limit(Mono<T> call, Function<Throwable, Outcome> outcomeOf) {
+        return Mono.usingWhen(acquireLater(), start -> call,
+                start -> Mono.fromRunnable(() -> release(start, Outcome.SUCCESS)),
+                (start, error) -> Mono.fromRunnable(() -> release(start, outcomeOf.apply(error))),
+                start -> Mono.fromRunnable(() -> release(start, Outcome.IGNORE)));
+    }
+
+    private Mono<Long> acquireLater() {
+        return Mono.<Long>create(sink -> {
+                    PendingPermit permit = null;
+                    lock.lock();
+                    try {
+                        if (inFlight < (int) limit && pending.isEmpty()) {
+                            inFlight++;
+                        } else {
+                            permit = new PendingPermit(sink);
+                            pending.add(permit);
+                            waiting++;
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                    if (permit == null) {
+                        sink.success(System.nanoTime());
+                        return;
+                    }
+                    PendingPermit queued = permit;
+                    sink.onCancel(() -> withdraw(queued));
+                    queued.timeout = Schedulers.parallel().schedule(() -> expire(queued),
+                            maxWait.toNanos(), TimeUnit.NANOSECONDS);
+                })
+                // A permit granted just as the caller cancelled is never seen by usingWhen.
+                .doOnDiscard(Long.class, start -> release(start, Outcome.IGNORE));
+    }
+
+    private void withdraw(PendingPermit permit) {
+        lock.lock();
+        try {
+            if (pending.remove(permit)) {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void expire(PendingPermit permit) {
+        lock.lock();
+        try {
+            if (!pending.remove(permit)) {
+                return;
+            }
+            waiting--;
+            rejected.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+        permit.sink.error(new UpstreamSaturatedException("No upstream permit for " + name + " within "
+                + maxWait.toMillis() + " ms (limit " + getLimit() + ")"));
+    }
+
+    public void release(long startNanos, Outcome outcome) {
+        long latency = System.nanoTime() - startNanos;
+        List<PendingPermit> granted = new ArrayList<>();
+        lock.lock();
+        try {
+            inFlight--;
+            switch (outcome) {
+                case SUCCESS -> onSuccess(latency);
+                case OVERLOAD -> limit = Math.max(minLimit, limit * backoffRatio);
+                case IGNORE -> { }
+            }
+            while (inFlight < (int) limit && !pending.isEmpty()) {
+                granted.add(pending.poll());
+                waiting--;
+                inFlight++;
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        // Outside the lock: the sink runs the caller's upstream call on this thread.
+        for (PendingPermit permit : granted) {
+            Disposable timeout = permit.timeout;
+            if (timeout != null) {
+                timeout.dispose();
+            }
+            permit.sink.success(System.nanoTime());
+        }
+    }
+
+    private void onSuccess(long latency) {
+        // Let the baseline drift up slowly so a lasting change in upstream latency is re-learned.
+        if (minLatencyNanos != Long.MAX_VALUE) {
+            minLatencyNanos += minLatencyNanos >> 8;
+        }
+        minLatencyNanos = Math.min(minLatencyNanos, Math.max(1, latency));
+        double allowed = minLatencyNanos * latencyTolerance;
+        if (latency <= allowed) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        } else {
+            limit = Math.max(minLimit, limit * Math.max(backoffRatio, allowed / latency));
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("holidays.upstream.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("holidays.upstream.concurrency.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("holidays.upstream.concurrency.waiting", this, AdaptiveConcurrencyLimiter::getWaiting)
+                .tag("name", name)
+                .register(registry);
+        FunctionCounter.builder("holidays.upstream.concurrency.rejected", rejected, AtomicLong::get)
+                .tag("name", name)
+                .register(registry);
+    }
+
+    private static final class PendingPermit {
+        private final MonoSink<Long> sink;
+        private volatile Disposable timeout;
+
+        private PendingPermit(MonoSink<Long> sink) {
+            this.sink = sink;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.bingyu.holidays.client;
+
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.model.HolidayKey;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight wrapper: while a fetch for a {@code (year, country)} is in
+ * flight, concurrent callers for the same key wait for and share its result
+ * instead of issuing their own upstream request.
+ */
+@Slf4j
+public class CoalescingHolidayApiClient implements HolidayApiClient, MeterBinder {
+
+    private final HolidayApiClient delegate;
+    private final ConcurrentMap<HolidayKey, CompletableFuture<List<Holiday>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public CoalescingHolidayApiClient(HolidayApiClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<Holiday> fetchHolidays(int year, String countryCode) {
+        HolidayKey key = new HolidayKey(year, countryCode);
+        CompletableFuture<List<Holiday>> call = new CompletableFuture<>();
+        CompletableFuture<List<Holiday>> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            log.debug("Joining in-flight fetch for {}", key);
+            return join(existing);
+        }
+        try {
+            List<Holiday> result = delegate.fetchHolidays(year, countryCode);
+            call.complete(result);
+            return result;
+        } catch (Throwable t) {
+            // Errors too, or callers joined on this fetch would wait forever.
+            call.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Number of calls that were served by another caller's in-flight fetch.
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    private static List<Holiday> join(CompletableFuture<List<Holiday>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("holidays.upstream.coalesced", coalesced, AtomicLong::get)
+                .description("Lookups served by another caller's in-flight upstream fetch")
+                .register(registry);
+    }
+}
@@ -0,0 +1,155 @@
+package com.bingyu.holidays.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests for upstream calls. If a call has not answered after the
+ * configured latency percentile of recent calls, a second identical call is
+ * sent and the first value wins; the other is cancelled. If the first
+ * attempt fails before a hedge was sent, or fails with anything but an
+ * overload (see {@link NagerDateApiClient#outcomeOf}), the call fails at once
+ * and any hedge is cancelled; otherwise it fails only once the hedge has
+ * failed too, with the first attempt's error. Hedges are capped at {@code maxRatio} of all calls so a
+ * slow upstream is not hit with twice the load, and no hedge is sent until
+ * enough latencies are known or after the first attempt has already failed.
+ */
+public class HedgingPolicy implements MeterBinder {
+    static final int WINDOW = 256;
+    static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final String name;
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final double maxRatio;
+
+    private final long[] latencies = new long[WINDOW];
+    private int samples;
+    private volatile long delayNanos = -1;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong wins = new AtomicLong();
+
+    public HedgingPolicy(String name, boolean enabled, double percentile, Duration minDelay, double maxRatio) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be in (0, 1): " + percentile);
+        }
+        this.name = name;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxRatio = maxRatio;
+    }
+
+    public static HedgingPolicy disabled(String name) {
+        return new HedgingPolicy(name, false, 0.95, Duration.ZERO, 0);
+    }
+
+    /**
+     * Subscribes to {@code call} and, if it is still pending after the hedge
+     * delay and the budget allows, to a second {@code call}.
+     */
+    public <T> Mono<T> hedge(Supplier<Mono<T>> call) {
+        return hedge(call, call);
+    }
+
+    /**
+     * Subscribes to {@code call} and, if it is still pending after the hedge
+     * delay and the budget allows, to {@code hedgeCall}; callers use it to
+     * make the hedge take its own rate and concurrency permits.
+     */
+    public <T> Mono<T> hedge(Supplier<Mono<T>> call, Supplier<Mono<T>> hedgeCall) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            long count = calls.incrementAndGet();
+            long delay = delayNanos;
+            Mono<T> result = call.get();
+            if (enabled && delay >= 0) {
+                AtomicReference<Throwable> primaryError = new AtomicReference<>();
+                AtomicBoolean hedgeSent = new AtomicBoolean();
+                Sinks.Empty<Void> giveUp = Sinks.empty();
+                Mono<T> primary = result.doOnError(e -> {
+                    primaryError.set(e);
+                    // Only an overloaded upstream may still answer the hedge; anything
+                    // else (a 4xx, a bad body) fails now instead of after the delay.
+                    if (!hedgeSent.get() || NagerDateApiClient.outcomeOf(e) != AdaptiveConcurrencyLimiter.Outcome.OVERLOAD) {
+                        giveUp.tryEmitEmpty();
+                    }
+                });
+                Mono<T> hedge = Mono.delay(Duration.ofNanos(delay))
+                        .flatMap(tick -> {
+                            if (primaryError.get() != null || hedges.get() + 1 > count * maxRatio) {
+                                return Mono.<T>empty();
+                            }
+                            hedgeSent.set(true);
+                            hedges.incrementAndGet();
+                            return hedgeCall.get().doOnNext(value -> wins.incrementAndGet());
+                        })
+                        .takeUntilOther(giveUp.asMono());
+                // Both attempts failed, or the hedge was never sent: report the first attempt's error.
+                result = Mono.firstWithValue(primary, hedge)
+                        .onErrorMap(NoSuchElementException.class,
+                                e -> primaryError.get() != null ? primaryError.get() : e);
+            }
+            return result.doOnNext(value -> record(System.nanoTime() - start));
+        });
+    }
+
+    synchronized void record(long nanos) {
+        latencies[samples % WINDOW] = nanos;
+        samples++;
+        if (samples >= MIN_SAMPLES && samples % RECOMPUTE_EVERY == 0) {
+            long[] window = Arrays.copyOf(latencies, Math.min(samples, WINDOW));
+            Arrays.sort(window);
+            long value = window[(int) Math.min(window.length - 1, Math.ceil(percentile * window.length) - 1)];
+            delayNanos = Math.max(minDelayNanos, value);
+        }
+    }
+
+    /**
+     * Current hedge delay, or {@code null} while too few calls have been seen.
+     */
+    public Duration getDelay() {
+        long delay = delayNanos;
+        return delay < 0 ? null : Duration.ofNanos(delay);
+    }
+
+    public long getHedges() {
+        return hedges.get();
+    }
+
+    public long getWins() {
+        return wins.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("holidays.upstream.hedging.delay", this, p -> Math.max(0, p.delayNanos) / 1e6)
+                .tag("name", name)
+                .baseUnit("milliseconds")
+                .register(registry);
+        FunctionCounter.builder("holidays.upstream.hedging.sent", hedges, AtomicLong::get)
+                .tag("name", name)
+                .description("Second attempts sent because the first was slow")
+                .register(registry);
+        FunctionCounter.builder("holidays.upstream.hedging.won", wins, AtomicLong::get)
+                .tag("name", name)
+                .description("Second attempts that answered before the first")
+                .register(registry);
+    }
+}
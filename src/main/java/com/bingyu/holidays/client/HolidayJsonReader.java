@@ -0,0 +1,99 @@
+package com.bingyu.holidays.client;
+
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.model.HolidayNames;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Streaming reader for the Nager.Date holiday array. It pulls tokens straight
+ * into {@link Holiday} instances, reading only {@code date}, {@code name} and
+ * {@code localName} and skipping every other field without building a tree
+ * or a per-element buffer. Names are interned through {@link HolidayNames}.
+ */
+public final class HolidayJsonReader {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private HolidayJsonReader() {
+    }
+
+    public static List<Holiday> read(byte[] json) {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            return read(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed holiday list", e);
+        }
+    }
+
+    static List<Holiday> read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected a JSON array of holidays");
+        }
+        List<Holiday> holidays = new ArrayList<>(16);
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+            holidays.add(readHoliday(parser));
+        }
+        if (token != JsonToken.END_ARRAY) {
+            throw new IOException("Expected a holiday object but found " + token);
+        }
+        return Collections.unmodifiableList(holidays);
+    }
+
+    private static Holiday readHoliday(JsonParser parser) throws IOException {
+        LocalDate date = null;
+        String name = null;
+        String localName = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "date" -> date = parseDate(parser.getText());
+                case "name" -> name = value == JsonToken.VALUE_NULL ? null : HolidayNames.intern(parser.getText());
+                case "localName" -> localName = value == JsonToken.VALUE_NULL ? null : HolidayNames.intern(parser.getText());
+                default -> parser.skipChildren();
+            }
+        }
+        if (date == null) {
+            throw new IOException("Holiday without a date");
+        }
+        return new Holiday(date, name, localName);
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd} without a formatter, falling back to
+     * {@link LocalDate#parse} for anything else.
+     */
+    static LocalDate parseDate(String text) {
+        if (text.length() == 10 && text.charAt(4) == '-' && text.charAt(7) == '-') {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 7);
+            int day = digits(text, 8, 10);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+        return LocalDate.parse(text);
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
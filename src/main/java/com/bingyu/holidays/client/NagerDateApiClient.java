@@ -1,14 +1,25 @@
 package com.bingyu.holidays.client;
 
+import com.bingyu.holidays.cache.LastKnownGoodStore;
+import com.bingyu.holidays.exception.UpstreamTimeoutException;
 import com.bingyu.holidays.model.Holiday;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import io.github.resilience4j.reactor.ratelimiter.operator.RateLimiterOperator;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.beans.factory.annotation.Value;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 
@@ -21,29 +32,129 @@ public class NagerDateApiClient implements HolidayApiClient{
 
     private final WebClient webClient;
     private final String holidaysPath;
+    private final UpstreamMetrics metrics;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final HedgingPolicy hedging;
+    private final RateLimiterOperator<List<Holiday>> hedgeRateLimit;
+    private final Duration deadline;
+    private final LastKnownGoodStore lastKnownGood;
 
     public NagerDateApiClient(WebClient.Builder builder,
+                              UpstreamMetrics metrics,
+                              AdaptiveConcurrencyLimiter limiter,
+                              HedgingPolicy hedging,
+                              RateLimiterRegistry rateLimiterRegistry,
+                              LastKnownGoodStore lastKnownGood,
                               @Value("${nager.api.base-url}") String baseUrl,
-                              @Value("${nager.api.holidays-path}") String holidaysPath)  {
+                              @Value("${nager.api.holidays-path}") String holidaysPath,
+                              @Value("${holidays.upstream.deadline}") Duration deadline)  {
         this.webClient = builder.baseUrl(baseUrl).build();
         this.holidaysPath  = holidaysPath;
+        this.metrics = metrics;
+        this.limiter = limiter;
+        this.hedging = hedging;
+        this.hedgeRateLimit = RateLimiterOperator.of(rateLimiterRegistry.rateLimiter(RETRY_INSTANCE));
+        this.deadline = deadline;
+        this.lastKnownGood = lastKnownGood;
     }
 
+    /**
+     * Fetches a year's holidays through the cache. When the upstream fails, or
+     * the circuit breaker is open, the answer comes from the last-known-good
+     * store instead; such lists are not cached, so the next call tries again.
+     */
     @Override
-    @Cacheable(value = CACHE_NAME, key = "#year + '-' + #countryCode", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = CACHE_NAME, key = "#year + '-' + #countryCode",
+            unless = "#result == null || #result.isEmpty()"
+                    + " || #result instanceof T(com.bingyu.holidays.cache.LastKnownGoodStore$StaleHolidays)")
     @Retry(name = RETRY_INSTANCE, fallbackMethod = "fallbackHolidays")
+    @CircuitBreaker(name = RETRY_INSTANCE)
     @RateLimiter(name = RETRY_INSTANCE)
     public List<Holiday> fetchHolidays(int year, String countryCode) {
+        return fetch(year, countryCode);
+    }
+
+    /**
+     * Fetches from upstream bypassing the cache; used to refresh cached entries
+     * in the background. Returns an empty list if the upstream call fails, so
+     * the refresh keeps the cached list.
+     */
+    @Retry(name = RETRY_INSTANCE, fallbackMethod = "fallbackRefresh")
+    @CircuitBreaker(name = RETRY_INSTANCE)
+    @RateLimiter(name = RETRY_INSTANCE)
+    public List<Holiday> refreshHolidays(int year, String countryCode) {
+        return fetch(year, countryCode);
+    }
+
+    private List<Holiday> fetch(int year, String countryCode) {
+        long permit = limiter.acquire();
+        AdaptiveConcurrencyLimiter.Outcome outcome = AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+        Timer.Sample sample = metrics.start();
+        try {
+            List<Holiday> holidays = hedging.hedge(() -> request(year, countryCode),
+                            () -> hedgeRequest(year, countryCode))
+                    .timeout(deadline, Mono.error(() -> new UpstreamTimeoutException(
+                            "No answer for " + year + "-" + countryCode + " within " + deadline.toMillis() + " ms")))
+                    .block();
+            metrics.success(sample, holidays);
+            lastKnownGood.put(year, countryCode, holidays);
+            return holidays;
+        } catch (RuntimeException e) {
+            outcome = outcomeOf(e);
+            metrics.failure(sample, e);
+            throw e;
+        } finally {
+            limiter.release(permit, outcome);
+        }
+    }
+
+    private Mono<List<Holiday>> request(int year, String countryCode) {
         return webClient.get()
                 .uri(holidaysPath, year, countryCode)
                 .retrieve()
-                .bodyToFlux(Holiday.class)
-                .collectList()
-                .block();
+                .bodyToMono(byte[].class)
+                .map(HolidayJsonReader::read)
+                .defaultIfEmpty(List.of());
+    }
+
+    /**
+     * A hedge is an extra upstream call, so it takes its own rate-limiter and
+     * concurrency permits instead of riding on the first attempt's.
+     */
+    private Mono<List<Holiday>> hedgeRequest(int year, String countryCode) {
+        return limiter.limit(request(year, countryCode), NagerDateApiClient::outcomeOf)
+                .transformDeferred(hedgeRateLimit);
+    }
+
+    static AdaptiveConcurrencyLimiter.Outcome outcomeOf(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status == 429 || status >= 500
+                    ? AdaptiveConcurrencyLimiter.Outcome.OVERLOAD
+                    : AdaptiveConcurrencyLimiter.Outcome.IGNORE;
+        }
+        return e instanceof WebClientRequestException || e instanceof UpstreamTimeoutException
+                ? AdaptiveConcurrencyLimiter.Outcome.OVERLOAD
+                : AdaptiveConcurrencyLimiter.Outcome.IGNORE;
     }
 
     private List<Holiday> fallbackHolidays(int year, String countryCode, Throwable t) {
-        log.error("Error fetching {} holidays for {}: {}", year, countryCode, t.getMessage());
+        logFailure(year, countryCode, t);
+        metrics.fallback(countryCode, t);
+        return lastKnownGood.fallback(year, countryCode);
+    }
+
+    private List<Holiday> fallbackRefresh(int year, String countryCode, Throwable t) {
+        logFailure(year, countryCode, t);
+        metrics.fallback(countryCode, t);
         return Collections.emptyList();
     }
+
+    private static void logFailure(int year, String countryCode, Throwable t) {
+        if (t instanceof CallNotPermittedException) {
+            log.debug("Circuit open, not fetching {} holidays for {}", year, countryCode);
+        } else {
+            log.error("Error fetching {} holidays for {}: {}", year, countryCode, t.getMessage());
+        }
+    }
 }
@@ -0,0 +1,13 @@
+package com.bingyu.holidays.client;
+
+import com.bingyu.holidays.model.Holiday;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link HolidayApiClient}.
+ */
+public interface ReactiveHolidayApiClient {
+    Mono<List<Holiday>> fetchHolidays(int year, String countryCode);
+}
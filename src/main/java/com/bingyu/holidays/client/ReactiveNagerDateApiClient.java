@@ -0,0 +1,162 @@
+package com.bingyu.holidays.client;
+
+import com.bingyu.holidays.cache.LastKnownGoodStore;
+import com.bingyu.holidays.cache.TieredCaffeineCache;
+import com.bingyu.holidays.exception.UpstreamTimeoutException;
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.model.HolidayKey;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.ratelimiter.operator.RateLimiterOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reactive Nager.Date client. Shares the {@code holidays} cache, the
+ * {@code nagerApi} retry, circuit-breaker and rate-limiter instances, the
+ * adaptive concurrency limit and the last-known-good fallback with
+ * {@link NagerDateApiClient}, and coalesces concurrent fetches per key.
+ *
+ * <p>Only the in-memory cache tier is read on the calling thread. The lower
+ * cache tiers, cache writes and the last-known-good store do blocking I/O and
+ * run on the bounded-elastic scheduler, never on a Netty event loop.
+ */
+@Component
+@Slf4j
+public class ReactiveNagerDateApiClient implements ReactiveHolidayApiClient {
+
+    private final WebClient webClient;
+    private final String holidaysPath;
+    private final Cache cache;
+    private final Retry retry;
+    private final CircuitBreaker circuitBreaker;
+    private final RateLimiter rateLimiter;
+    private final UpstreamMetrics metrics;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final HedgingPolicy hedging;
+    private final Duration deadline;
+    private final LastKnownGoodStore lastKnownGood;
+    private final ConcurrentMap<HolidayKey, Mono<List<Holiday>>> inFlight = new ConcurrentHashMap<>();
+
+    public ReactiveNagerDateApiClient(WebClient.Builder builder,
+                                      CacheManager cacheManager,
+                                      RetryRegistry retryRegistry,
+                                      CircuitBreakerRegistry circuitBreakerRegistry,
+                                      RateLimiterRegistry rateLimiterRegistry,
+                                      UpstreamMetrics metrics,
+                                      AdaptiveConcurrencyLimiter limiter,
+                                      HedgingPolicy hedging,
+                                      LastKnownGoodStore lastKnownGood,
+                                      @Value("${nager.api.base-url}") String baseUrl,
+                                      @Value("${nager.api.holidays-path}") String holidaysPath,
+                                      @Value("${holidays.upstream.deadline}") Duration deadline) {
+        this.webClient = builder.baseUrl(baseUrl).build();
+        this.holidaysPath = holidaysPath;
+        this.cache = cacheManager.getCache(NagerDateApiClient.CACHE_NAME);
+        this.retry = retryRegistry.retry(NagerDateApiClient.RETRY_INSTANCE);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(NagerDateApiClient.RETRY_INSTANCE);
+        this.rateLimiter = rateLimiterRegistry.rateLimiter(NagerDateApiClient.RETRY_INSTANCE);
+        this.metrics = metrics;
+        this.limiter = limiter;
+        this.hedging = hedging;
+        this.deadline = deadline;
+        this.lastKnownGood = lastKnownGood;
+    }
+
+    @Override
+    public Mono<List<Holiday>> fetchHolidays(int year, String countryCode) {
+        HolidayKey key = new HolidayKey(year, countryCode);
+        return Mono.defer(() -> {
+            List<Holiday> cached = lookupInMemory(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            Mono<List<Holiday>> call = lookupTiers(key).switchIfEmpty(fetchUpstream(key)).cache();
+            Mono<List<Holiday>> existing = inFlight.putIfAbsent(key, call);
+            if (existing != null) {
+                return existing;
+            }
+            return call.doFinally(signal -> inFlight.remove(key, call));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Holiday> lookupInMemory(HolidayKey key) {
+        if (cache instanceof CaffeineCache caffeine) {
+            return (List<Holiday>) caffeine.getNativeCache().getIfPresent(key.toString());
+        }
+        return cache == null ? null : cache.get(key.toString(), List.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<List<Holiday>> lookupTiers(HolidayKey key) {
+        if (!(cache instanceof TieredCaffeineCache)) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> (List<Holiday>) cache.get(key.toString(), List.class))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<List<Holiday>> request(HolidayKey key) {
+        return webClient.get()
+                .uri(holidaysPath, key.year(), key.countryCode())
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .map(HolidayJsonReader::read)
+                .defaultIfEmpty(List.of());
+    }
+
+    private Mono<List<Holiday>> fetchUpstream(HolidayKey key) {
+        return limiter.limit(Mono.defer(() -> {
+                    Timer.Sample sample = metrics.start();
+                    return hedging.hedge(() -> request(key),
+                                    // The hedge takes its own rate-limiter and concurrency permits.
+                                    () -> limiter.limit(request(key), NagerDateApiClient::outcomeOf)
+                                            .transformDeferred(RateLimiterOperator.of(rateLimiter)))
+                            .timeout(deadline, Mono.error(() -> new UpstreamTimeoutException(
+                                    "No answer for " + key + " within " + deadline.toMillis() + " ms")))
+                            .doOnSuccess(holidays -> metrics.success(sample, holidays))
+                            .doOnError(t -> metrics.failure(sample, t));
+                }), NagerDateApiClient::outcomeOf)
+                .transformDeferred(RateLimiterOperator.of(rateLimiter))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry))
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(holidays -> {
+                    lastKnownGood.put(key.year(), key.countryCode(), holidays);
+                    if (cache != null && !holidays.isEmpty()) {
+                        cache.put(key.toString(), holidays);
+                    }
+                })
+                .onErrorResume(t -> {
+                    if (t instanceof CallNotPermittedException) {
+                        log.debug("Circuit open, not fetching {} holidays for {}", key.year(), key.countryCode());
+                    } else {
+                        log.error("Error fetching {} holidays for {}: {}", key.year(), key.countryCode(),
+                                t.getMessage());
+                    }
+                    metrics.fallback(key.countryCode(), t);
+                    return Mono.fromSupplier(() -> lastKnownGood.fallback(key.year(), key.countryCode()));
+                });
+    }
+}
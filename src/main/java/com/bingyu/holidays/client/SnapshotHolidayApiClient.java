@@ -0,0 +1,72 @@
+package com.bingyu.holidays.client;
+
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.snapshot.HolidaySnapshot;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves holidays from a local {@link HolidaySnapshot} and only falls back to
+ * the upstream client for (year, country) pairs the snapshot does not cover.
+ * The snapshot can be swapped at runtime by a background refresh.
+ */
+@Slf4j
+public class SnapshotHolidayApiClient implements HolidayApiClient {
+
+    private final HolidayApiClient upstream;
+    private final AtomicReference<HolidaySnapshot> snapshot;
+    private final AtomicLong misses = new AtomicLong();
+
+    public SnapshotHolidayApiClient(HolidayApiClient upstream, HolidaySnapshot snapshot) {
+        this.upstream = upstream;
+        this.snapshot = new AtomicReference<>(snapshot);
+    }
+
+    /**
+     * Opens the snapshot at {@code file}, starting empty if it is missing or unreadable.
+     */
+    public static SnapshotHolidayApiClient open(HolidayApiClient upstream, Path file) {
+        HolidaySnapshot snapshot = HolidaySnapshot.empty();
+        if (Files.exists(file)) {
+            long start = System.nanoTime();
+            try {
+                snapshot = HolidaySnapshot.open(file);
+                log.info("Loaded holiday snapshot {} with {} entries in {} ms", file, snapshot.size(),
+                        (System.nanoTime() - start) / 1_000_000);
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable holiday snapshot {}: {}", file, e.getMessage());
+            }
+        } else {
+            log.info("No holiday snapshot at {}, serving from upstream until the first refresh", file);
+        }
+        return new SnapshotHolidayApiClient(upstream, snapshot);
+    }
+
+    @Override
+    public List<Holiday> fetchHolidays(int year, String countryCode) {
+        List<Holiday> holidays = snapshot.get().get(year, countryCode);
+        if (holidays != null) {
+            return holidays;
+        }
+        misses.incrementAndGet();
+        return upstream.fetchHolidays(year, countryCode);
+    }
+
+    public HolidaySnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    public void replace(HolidaySnapshot replacement) {
+        snapshot.set(replacement);
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+}
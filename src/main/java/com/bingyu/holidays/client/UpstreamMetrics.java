@@ -0,0 +1,74 @@
+package com.bingyu.holidays.client;
+
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.List;
+
+/**
+ * Meters shared by the blocking and reactive Nager.Date clients:
+ * <ul>
+ *     <li>{@code holidays.upstream.requests}: timer per HTTP attempt, tagged by outcome and status;
+ *     not by country, as each country would get its own histogram buckets</li>
+ *     <li>{@code holidays.upstream.fallbacks}: lookups answered by the fallback, from the last-known-good
+ *     store or else with an empty list, after retries or while the circuit is open</li>
+ *     <li>{@code holidays.upstream.rate-limited}: calls rejected by the {@code nagerApi} rate limiter</li>
+ * </ul>
+ */
+@Component
+public class UpstreamMetrics {
+    public static final String REQUESTS = "holidays.upstream.requests";
+    public static final String FALLBACKS = "holidays.upstream.fallbacks";
+    public static final String RATE_LIMITED = "holidays.upstream.rate-limited";
+
+    private final MeterRegistry registry;
+
+    public UpstreamMetrics(MeterRegistry registry, RateLimiterRegistry rateLimiterRegistry) {
+        this.registry = registry;
+        Counter rateLimited = Counter.builder(RATE_LIMITED)
+                .description("Upstream calls rejected by the rate limiter")
+                .tag("name", NagerDateApiClient.RETRY_INSTANCE)
+                .register(registry);
+        rateLimiterRegistry.rateLimiter(NagerDateApiClient.RETRY_INSTANCE)
+                .getEventPublisher()
+                .onFailure(event -> rateLimited.increment());
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void success(Timer.Sample sample, List<?> holidays) {
+        stop(sample, holidays == null || holidays.isEmpty() ? "EMPTY" : "SUCCESS", "200");
+    }
+
+    public void failure(Timer.Sample sample, Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            stop(sample, status >= 500 ? "SERVER_ERROR" : "CLIENT_ERROR", String.valueOf(status));
+        } else {
+            stop(sample, "ERROR", "none");
+        }
+    }
+
+    public void fallback(String countryCode, Throwable error) {
+        Counter.builder(FALLBACKS)
+                .description("Holiday lookups answered from the last-known-good store or with an empty list")
+                .tag("country", countryCode)
+                .tag("exception", error.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+
+    private void stop(Timer.Sample sample, String outcome, String status) {
+        sample.stop(Timer.builder(REQUESTS)
+                .description("Nager.Date PublicHolidays calls, one per attempt")
+                .tag("outcome", outcome)
+                .tag("status", status)
+                .register(registry));
+    }
+}
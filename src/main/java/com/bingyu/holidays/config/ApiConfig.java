@@ -1,16 +1,65 @@
 package com.bingyu.holidays.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.time.Duration;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
+/**
+ * Executor used by the service layer for blocking upstream fetches. In
+ * {@link ExecutionMode#VIRTUAL} mode both this executor and Tomcat's request
+ * handling run on virtual threads. Both executors are shut down with the
+ * application context, waiting up to {@code shutdown-timeout} for running tasks.
+ */
 @Configuration
+@Slf4j
 public class ApiConfig {
 
     @Bean
-    public Executor apiExecutor() {
-        return Executors.newFixedThreadPool(10);
+    @Primary
+    public Executor apiExecutor(@Value("${holidays.executor.mode}") ExecutionMode mode,
+                                @Value("${holidays.executor.pool-size}") int poolSize,
+                                @Value("${holidays.executor.shutdown-timeout}") Duration shutdownTimeout) {
+        if (mode == ExecutionMode.VIRTUAL && virtualThreadsAvailable()) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("api-");
+            executor.setVirtualThreads(true);
+            executor.setTaskTerminationTimeout(shutdownTimeout.toMillis());
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("api-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(shutdownTimeout.toMillis());
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "holidays.executor.mode", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        if (!virtualThreadsAvailable()) {
+            return protocolHandler -> { };
+        }
+        return protocolHandler -> protocolHandler.setExecutor(new VirtualThreadTaskExecutor("tomcat-"));
+    }
+
+    private static boolean virtualThreadsAvailable() {
+        if (JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+            return true;
+        }
+        log.warn("Virtual threads require Java 21+, running on {}; using platform threads",
+                JavaVersion.getJavaVersion());
+        return false;
     }
 }
@@ -0,0 +1,70 @@
+package com.bingyu.holidays.config;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs at most {@code limit} tasks at a time on a shared delegate executor and
+ * queues the rest. Used to cap how much of the shared executor a single
+ * request's fan-out may occupy. A task the delegate rejects runs on the
+ * thread that tried to hand it over.
+ */
+public class BoundedExecutor implements Executor {
+
+    private final Executor delegate;
+    private final int limit;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger active = new AtomicInteger();
+
+    public BoundedExecutor(Executor delegate, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        this.delegate = delegate;
+        this.limit = limit;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        queue.add(task);
+        drain();
+    }
+
+    private void drain() {
+        while (!queue.isEmpty()) {
+            int running = active.get();
+            if (running >= limit) {
+                return;
+            }
+            if (!active.compareAndSet(running, running + 1)) {
+                continue;
+            }
+            Runnable next = queue.poll();
+            if (next == null) {
+                active.decrementAndGet();
+                continue;
+            }
+            try {
+                delegate.execute(() -> {
+                    try {
+                        next.run();
+                    } finally {
+                        active.decrementAndGet();
+                        drain();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The polled task may be another caller's and nothing else would run it,
+                // leaving its future incomplete; run it here instead.
+                try {
+                    next.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            }
+        }
+    }
+}
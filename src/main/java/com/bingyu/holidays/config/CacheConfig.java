@@ -0,0 +1,93 @@
+package com.bingyu.holidays.config;
+
+import com.bingyu.holidays.cache.CacheTier;
+import com.bingyu.holidays.cache.HolidayRefreshLoader;
+import com.bingyu.holidays.cache.PersistentCacheTier;
+import com.bingyu.holidays.cache.RedisSharedCacheTier;
+import com.bingyu.holidays.cache.TieredCacheManager;
+import com.bingyu.holidays.cache.TieredCaffeineCache;
+import com.bingyu.holidays.client.NagerDateApiClient;
+import com.bingyu.holidays.model.Holiday;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.resource.ClientResources;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Tiered cache for upstream holiday lists: a weight-bounded Caffeine tier in
+ * memory, an optional file tier that survives restarts and an optional shared
+ * tier on Redis that replicas fill for each other. The Redis connection is
+ * Boot's, configured under {@code spring.data.redis.*}. Entries do not
+ * expire; once older than {@code refresh-after-write} they are served stale
+ * while {@link HolidayRefreshLoader} reloads them in the background.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "holidays.cache.persistent.enabled", havingValue = "true")
+    public PersistentCacheTier holidayPersistentTier(
+            ObjectMapper objectMapper,
+            @Value("${holidays.cache.persistent.directory}") Path directory,
+            @Value("${holidays.cache.persistent.time-to-live}") Duration timeToLive) {
+        return new PersistentCacheTier(NagerDateApiClient.CACHE_NAME, directory, objectMapper,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, Holiday.class),
+                timeToLive);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "holidays.cache.shared.enabled", havingValue = "true")
+    public RedisSharedCacheTier holidaySharedTier(
+            RedisConnectionFactory connectionFactory,
+            ClientResources clientResources,
+            @Value("${holidays.cache.shared.key-prefix}") String keyPrefix,
+            @Value("${holidays.cache.shared.time-to-live}") Duration timeToLive,
+            @Value("${holidays.cache.shared.invalidation-channel}") String channel,
+            @Value("${holidays.cache.shared.backoff}") Duration backoff) {
+        return new RedisSharedCacheTier(NagerDateApiClient.CACHE_NAME, connectionFactory, clientResources.eventBus(),
+                keyPrefix, timeToLive, channel, backoff);
+    }
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${holidays.cache.maximum-weight}") long maximumWeight,
+            @Value("${holidays.cache.refresh-after-write}") Duration refreshAfterWrite,
+            ObjectProvider<PersistentCacheTier> persistentTier,
+            ObjectProvider<RedisSharedCacheTier> sharedTier,
+            ObjectProvider<NagerDateApiClient> nagerDateApiClient,
+            Executor apiExecutor) {
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((key, value) -> value instanceof Collection<?> c ? c.size() + 1 : 1)
+                .refreshAfterWrite(refreshAfterWrite)
+                .executor(apiExecutor)
+                .recordStats();
+        List<CacheTier> tiers = new ArrayList<>(2);
+        persistentTier.ifAvailable(tiers::add);
+        sharedTier.ifAvailable(tiers::add);
+        HolidayRefreshLoader loader = new HolidayRefreshLoader(
+                (year, countryCode) -> nagerDateApiClient.getObject().refreshHolidays(year, countryCode),
+                sharedTier.getIfAvailable(), refreshAfterWrite);
+        TieredCacheManager manager = new TieredCacheManager(caffeine, List.of(NagerDateApiClient.CACHE_NAME),
+                Map.of(NagerDateApiClient.CACHE_NAME, tiers), loader);
+        if (!tiers.isEmpty()) {
+            TieredCaffeineCache cache = (TieredCaffeineCache) manager.getCache(NagerDateApiClient.CACHE_NAME);
+            loader.setRefreshListener(cache::writeTiers);
+        }
+        return manager;
+    }
+}
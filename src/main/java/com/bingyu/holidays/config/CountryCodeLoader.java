@@ -1,24 +1,39 @@
 package com.bingyu.holidays.config;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 
-import java.util.Collections;
-import java.util.HashSet;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 import java.util.Set;
 
+/**
+ * Registry of the country codes Nager.Date supports. Starts from a bundled
+ * snapshot so startup never waits on (or fails because of) the upstream API,
+ * then replaces it on a schedule. Each refresh swaps in a complete new
+ * {@link CountryCodeTable}; a failed or empty refresh keeps the current one.
+ * The WebClient is only built by the first refresh, which runs on the
+ * scheduler thread, so startup does not pay for the HTTP client stack.
+ */
 @Component
 @Slf4j
 public class CountryCodeLoader {
-    private WebClient.Builder webClientBuilder = WebClient.builder();
+    private final WebClient.Builder webClientBuilder;
+    private final ObjectMapper objectMapper;
     private WebClient webClient;
-    private volatile Set<String> codes = Collections.emptySet();
+    private volatile CountryCodeTable codes = CountryCodeTable.EMPTY;
 
     @Value("${nager.api.base-url}")
     private String baseUrl;
@@ -26,42 +41,83 @@ public class CountryCodeLoader {
     @Value("${nager.api.available-countries-path}")
     private String countriesPath;
 
-    public CountryCodeLoader(WebClient.Builder webClientBuilder) {
+    @Value("${holidays.countries.snapshot}")
+    private Resource snapshot;
+
+    @Value("${holidays.upstream.deadline}")
+    private Duration deadline = Duration.ofSeconds(5);
+
+    public CountryCodeLoader(WebClient.Builder webClientBuilder, ObjectMapper objectMapper) {
         this.webClientBuilder = webClientBuilder;
+        this.objectMapper = objectMapper;
     }
 
     @PostConstruct
     public void init() {
-        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        loadSnapshot();
+    }
+
+    private WebClient webClient() {
+        if (webClient == null) {
+            webClient = webClientBuilder.baseUrl(baseUrl).build();
+        }
+        return webClient;
+    }
+
+    private void loadSnapshot() {
+        if (snapshot == null || !snapshot.exists()) {
+            log.warn("No bundled country code snapshot, starting with an empty set");
+            return;
+        }
+        try (InputStream in = snapshot.getInputStream()) {
+            List<AvailableCountry> list = objectMapper.readValue(in, new TypeReference<>() {
+            });
+            codes = toTable(list);
+            log.info("Loaded {} country codes from bundled snapshot", codes.size());
+        } catch (IOException e) {
+            log.error("Failed to read bundled country code snapshot {}", snapshot, e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${holidays.countries.initial-delay}",
+            fixedDelayString = "${holidays.countries.refresh-interval}")
+    public void refresh() {
         try {
-            loadCodes();
+            List<AvailableCountry> list = webClient().get()
+                    .uri(countriesPath)
+                    .retrieve()
+                    .bodyToFlux(AvailableCountry.class)
+                    .collectList()
+                    .block(deadline);
+            CountryCodeTable loaded = toTable(list);
+            if (loaded.size() == 0) {
+                log.warn("Upstream returned no country codes, keeping {} known codes", codes.size());
+                return;
+            }
+            codes = loaded;
+            log.info("Refreshed {} country codes from upstream", loaded.size());
         } catch (Exception e) {
-            log.error("Failed to load country codes, continuing with empty set", e);
-            throw e;
+            log.error("Failed to refresh country codes, keeping {} known codes", codes.size(), e);
         }
     }
 
-    private void loadCodes() {
-        List<AvailableCountry> list = webClient.get()
-                .uri(countriesPath)
-                .retrieve()
-                .bodyToFlux(AvailableCountry.class)
-                .collectList()
-                .block();
-        Set<String> loaded = new HashSet<>();
-        if (list != null) {
-            for (AvailableCountry c : list) {
-                loaded.add(c.getKey());
-            }
+    private static CountryCodeTable toTable(List<AvailableCountry> list) {
+        if (list == null) {
+            return CountryCodeTable.EMPTY;
         }
-        codes = Collections.unmodifiableSet(loaded);
+        return CountryCodeTable.of(list.stream().map(AvailableCountry::getKey).toList());
     }
 
     public boolean isValid(String code) {
-        return codes != null && codes.contains(code);
+        return codes.contains(code);
+    }
+
+    public Set<String> getCodes() {
+        return codes.codes();
     }
 
     @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class AvailableCountry {
         @JsonProperty("countryCode")
         private String key;
@@ -0,0 +1,71 @@
+package com.bingyu.holidays.config;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable set of two-letter country codes stored as a 26x26 bit table, so
+ * membership checks index a {@code long[]} directly instead of hashing the
+ * input. Only upper-case ISO-3166 alpha-2 codes are representable; anything
+ * else is rejected without being normalised.
+ */
+public final class CountryCodeTable {
+    public static final CountryCodeTable EMPTY = new CountryCodeTable(new long[words()], Set.of());
+
+    private static final int LETTERS = 26;
+
+    private final long[] bits;
+    private final Set<String> codes;
+
+    private CountryCodeTable(long[] bits, Set<String> codes) {
+        this.bits = bits;
+        this.codes = codes;
+    }
+
+    private static int words() {
+        return (LETTERS * LETTERS + 63) >>> 6;
+    }
+
+    /**
+     * Builds a table from {@code codes}, skipping entries that are not two upper-case letters.
+     */
+    public static CountryCodeTable of(Collection<String> codes) {
+        long[] bits = new long[words()];
+        Set<String> accepted = new TreeSet<>();
+        for (String code : codes) {
+            int slot = slot(code);
+            if (slot >= 0) {
+                bits[slot >>> 6] |= 1L << slot;
+                accepted.add(code);
+            }
+        }
+        return new CountryCodeTable(bits, Collections.unmodifiableSet(accepted));
+    }
+
+    public boolean contains(CharSequence code) {
+        int slot = slot(code);
+        return slot >= 0 && (bits[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    public Set<String> codes() {
+        return codes;
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    private static int slot(CharSequence code) {
+        if (code == null || code.length() != 2) {
+            return -1;
+        }
+        int first = code.charAt(0) - 'A';
+        int second = code.charAt(1) - 'A';
+        if (first < 0 || first >= LETTERS || second < 0 || second >= LETTERS) {
+            return -1;
+        }
+        return first * LETTERS + second;
+    }
+}
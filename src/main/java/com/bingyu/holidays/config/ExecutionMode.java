@@ -0,0 +1,11 @@
+package com.bingyu.holidays.config;
+
+/**
+ * How blocking work such as upstream fetches is scheduled.
+ */
+public enum ExecutionMode {
+    /** Fixed pool of platform threads. */
+    PLATFORM,
+    /** One virtual thread per task; requires Java 21 or newer at runtime. */
+    VIRTUAL
+}
@@ -0,0 +1,164 @@
+package com.bingyu.holidays.config;
+
+import com.bingyu.holidays.cache.LastKnownGoodStore;
+import com.bingyu.holidays.client.HolidayApiClient;
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.model.HolidayKey;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pre-fetches holidays for the previous, current and next years once the
+ * application (and with it the country code list) is ready. Fetches run in
+ * parallel but are paced below the upstream rate limit. Until warm-up has
+ * finished this indicator reports {@code OUT_OF_SERVICE}, which keeps the
+ * readiness probe down so load balancers do not route to a cold node.
+ */
+@Component
+@Slf4j
+public class HolidayCacheWarmer implements HealthIndicator {
+
+    private enum State { PENDING, RUNNING, DONE }
+
+    private final HolidayApiClient apiClient;
+    private final CountryCodeLoader codeLoader;
+    private final Executor executor;
+    private final boolean enabled;
+    private final List<String> countries;
+    private final int yearsBack;
+    private final int yearsAhead;
+    private final int maxConcurrency;
+    private final RateLimiter pacer;
+    private final Clock clock;
+
+    private volatile State state = State.PENDING;
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    @Autowired
+    public HolidayCacheWarmer(HolidayApiClient apiClient,
+                              CountryCodeLoader codeLoader,
+                              Executor apiExecutor,
+                              @Value("${holidays.warmup.enabled}") boolean enabled,
+                              @Value("${holidays.warmup.countries}") List<String> countries,
+                              @Value("${holidays.warmup.years-back}") int yearsBack,
+                              @Value("${holidays.warmup.years-ahead}") int yearsAhead,
+                              @Value("${holidays.warmup.max-concurrency}") int maxConcurrency,
+                              @Value("${holidays.warmup.permits-per-second}") int permitsPerSecond) {
+        this(apiClient, codeLoader, apiExecutor, enabled, countries, yearsBack, yearsAhead,
+                maxConcurrency, permitsPerSecond, Clock.systemDefaultZone());
+    }
+
+    HolidayCacheWarmer(HolidayApiClient apiClient, CountryCodeLoader codeLoader, Executor executor,
+                       boolean enabled, List<String> countries, int yearsBack, int yearsAhead,
+                       int maxConcurrency, int permitsPerSecond, Clock clock) {
+        this.apiClient = apiClient;
+        this.codeLoader = codeLoader;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.countries = countries;
+        this.yearsBack = yearsBack;
+        this.yearsAhead = yearsAhead;
+        this.maxConcurrency = maxConcurrency;
+        this.clock = clock;
+        this.pacer = RateLimiter.of("holidayWarmup", RateLimiterConfig.custom()
+                .limitForPeriod(permitsPerSecond)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ofMinutes(10))
+                .build());
+        if (!enabled) {
+            state = State.DONE;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (state != State.PENDING) {
+            return;
+        }
+        Thread thread = new Thread(this::warmUp, "holiday-cache-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void warmUp() {
+        state = State.RUNNING;
+        long start = System.nanoTime();
+        try {
+            List<HolidayKey> keys = keysToWarm();
+            log.info("Warming holiday cache with {} (year, country) entries", keys.size());
+            Executor bounded = new BoundedExecutor(executor, maxConcurrency);
+            List<CompletableFuture<Void>> fetches = new ArrayList<>(keys.size());
+            for (HolidayKey key : keys) {
+                // Paced here rather than inside the task, so waiting for a permit
+                // never holds a thread of the shared API executor.
+                RateLimiter.waitForPermission(pacer);
+                fetches.add(CompletableFuture.runAsync(() -> fetch(key), bounded));
+            }
+            CompletableFuture.allOf(fetches.toArray(CompletableFuture[]::new)).join();
+        } catch (RuntimeException e) {
+            log.error("Holiday cache warm-up aborted", e);
+        } finally {
+            state = State.DONE;
+            log.info("Holiday cache warm-up finished in {} ms: {} loaded, {} failed",
+                    Duration.ofNanos(System.nanoTime() - start).toMillis(), loaded.get(), failed.get());
+        }
+    }
+
+    private List<HolidayKey> keysToWarm() {
+        List<String> targets = countries.isEmpty() ? List.copyOf(codeLoader.getCodes()) : countries;
+        int currentYear = LocalDate.now(clock).getYear();
+        List<HolidayKey> keys = new ArrayList<>();
+        for (int year = currentYear - yearsBack; year <= currentYear + yearsAhead; year++) {
+            for (String country : targets) {
+                keys.add(new HolidayKey(year, country));
+            }
+        }
+        return keys;
+    }
+
+    private void fetch(HolidayKey key) {
+        try {
+            List<Holiday> holidays = apiClient.fetchHolidays(key.year(), key.countryCode());
+            // Fallback data means the upstream was not reached, so nothing new was cached.
+            if (holidays.isEmpty() || holidays instanceof LastKnownGoodStore.StaleHolidays) {
+                failed.incrementAndGet();
+            } else {
+                loaded.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("Warm-up fetch for {} failed: {}", key, e.getMessage());
+        }
+    }
+
+    public boolean isWarm() {
+        return state == State.DONE;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = isWarm() ? Health.up() : Health.outOfService();
+        return builder.withDetail("state", state)
+                .withDetail("loaded", loaded.get())
+                .withDetail("failed", failed.get())
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.bingyu.holidays.config;
+
+import com.bingyu.holidays.cache.LastKnownGoodStore;
+import com.bingyu.holidays.client.AdaptiveConcurrencyLimiter;
+import com.bingyu.holidays.client.CoalescingHolidayApiClient;
+import com.bingyu.holidays.client.HedgingPolicy;
+import com.bingyu.holidays.client.HolidayApiClient;
+import com.bingyu.holidays.client.NagerDateApiClient;
+import com.bingyu.holidays.client.SnapshotHolidayApiClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Assembles the {@link HolidayApiClient} used by the service layer from the
+ * Nager.Date client and the wrappers around it. With
+ * {@code holidays.client.source=snapshot} lookups are answered from the local
+ * snapshot file and only misses reach Nager.Date.
+ */
+@Configuration
+public class HolidayClientConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter upstreamConcurrencyLimiter(
+            @Value("${holidays.upstream.concurrency.initial-limit}") int initialLimit,
+            @Value("${holidays.upstream.concurrency.min-limit}") int minLimit,
+            @Value("${holidays.upstream.concurrency.max-limit}") int maxLimit,
+            @Value("${holidays.upstream.concurrency.backoff-ratio}") double backoffRatio,
+            @Value("${holidays.upstream.concurrency.latency-tolerance}") double latencyTolerance,
+            @Value("${holidays.upstream.concurrency.max-wait}") Duration maxWait) {
+        return new AdaptiveConcurrencyLimiter(NagerDateApiClient.RETRY_INSTANCE, initialLimit, minLimit, maxLimit,
+                backoffRatio, latencyTolerance, maxWait);
+    }
+
+    @Bean
+    public HedgingPolicy upstreamHedgingPolicy(
+            @Value("${holidays.upstream.hedging.enabled}") boolean enabled,
+            @Value("${holidays.upstream.hedging.percentile}") double percentile,
+            @Value("${holidays.upstream.hedging.min-delay}") Duration minDelay,
+            @Value("${holidays.upstream.hedging.max-ratio}") double maxRatio) {
+        return new HedgingPolicy(NagerDateApiClient.RETRY_INSTANCE, enabled, percentile, minDelay, maxRatio);
+    }
+
+    @Bean(destroyMethod = "close")
+    public LastKnownGoodStore lastKnownGoodStore(@Value("${holidays.fallback.file}") Path file) {
+        return new LastKnownGoodStore(file);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "holidays.client.source", havingValue = "snapshot")
+    public SnapshotHolidayApiClient snapshotHolidayApiClient(NagerDateApiClient nagerDateApiClient,
+                                                             @Value("${holidays.snapshot.file}") Path file) {
+        return SnapshotHolidayApiClient.open(nagerDateApiClient, file);
+    }
+
+    /**
+     * Runs the snapshot rebuild apart from the shared scheduler thread. Not a
+     * default candidate, so Boot still creates the shared scheduler.
+     */
+    @Bean(defaultCandidate = false)
+    @ConditionalOnProperty(name = "holidays.client.source", havingValue = "snapshot")
+    public ThreadPoolTaskScheduler snapshotRefreshScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("snapshot-refresh-");
+        return scheduler;
+    }
+
+    @Bean
+    @Primary
+    public CoalescingHolidayApiClient holidayApiClient(NagerDateApiClient nagerDateApiClient,
+                                                       ObjectProvider<SnapshotHolidayApiClient> snapshotClient) {
+        HolidayApiClient source = snapshotClient.getIfAvailable();
+        return new CoalescingHolidayApiClient(source != null ? source : nagerDateApiClient);
+    }
+}
@@ -0,0 +1,23 @@
+package com.bingyu.holidays.config;
+
+import com.bingyu.holidays.dto.CountryHolidayDTO;
+import com.bingyu.holidays.model.Holiday;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Hints for a GraalVM native image covering what AOT processing cannot see:
+ * the bundled country snapshot and the types Jackson binds outside of
+ * controller return values (the range stream, the persistent cache tier and
+ * the country list).
+ */
+public class HolidayRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern("country-codes.json");
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                Holiday.class, CountryHolidayDTO.class, CountryCodeLoader.AvailableCountry.class);
+    }
+}
@@ -0,0 +1,52 @@
+package com.bingyu.holidays.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Reactor Netty transport for the Nager.Date clients. Spring Boot applies a
+ * {@link ClientHttpConnector} bean to every auto-configured
+ * {@code WebClient.Builder}, so all upstream calls share one bounded pool of
+ * keep-alive connections, fail fast on connect and response timeouts and ask
+ * for gzip-compressed bodies.
+ */
+@Configuration
+public class UpstreamHttpConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider nagerConnectionProvider(
+            @Value("${holidays.upstream.http.max-connections}") int maxConnections,
+            @Value("${holidays.upstream.http.pending-acquire-timeout}") Duration pendingAcquireTimeout,
+            @Value("${holidays.upstream.http.max-idle-time}") Duration maxIdleTime,
+            @Value("${holidays.upstream.http.max-life-time}") Duration maxLifeTime) {
+        return ConnectionProvider.builder("nager")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(maxIdleTime)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector nagerHttpConnector(
+            ConnectionProvider nagerConnectionProvider,
+            @Value("${holidays.upstream.http.connect-timeout}") Duration connectTimeout,
+            @Value("${holidays.upstream.http.response-timeout}") Duration responseTimeout,
+            @Value("${holidays.upstream.http.compression}") boolean compression) {
+        HttpClient httpClient = HttpClient.create(nagerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(responseTimeout)
+                .compress(compression);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
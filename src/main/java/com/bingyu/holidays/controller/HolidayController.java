@@ -1,17 +1,43 @@
 package com.bingyu.holidays.controller;
 
+import com.bingyu.holidays.dto.BatchQuery;
+import com.bingyu.holidays.dto.BatchResult;
 import com.bingyu.holidays.dto.CountryHolidayCount;
+import com.bingyu.holidays.dto.CountryHolidayDTO;
 import com.bingyu.holidays.dto.LastHolidayDTO;
+import com.bingyu.holidays.dto.YearlyHolidayCount;
+import com.bingyu.holidays.index.HolidayOverlapMatrix;
+import com.bingyu.holidays.service.DegradedKeys;
 import com.bingyu.holidays.service.HolidayService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/holidays")
@@ -19,26 +45,209 @@ import java.util.List;
 @RequiredArgsConstructor
 public class HolidayController {
 
+    /** Lists the {@code year-country} keys a response was built from fallback data for. */
+    public static final String DEGRADED_HEADER = "X-Holidays-Degraded";
+
     private final HolidayService service;
+    private final ObjectMapper objectMapper;
+    @Value("${holidays.batch.max-queries}")
+    private final int maxBatchQueries;
+    @Value("${holidays.matrix.max-countries}")
+    private final int maxMatrixCountries;
+    @Value("${holidays.http.max-age.past-years}")
+    private final Duration pastYearsMaxAge;
+    @Value("${holidays.http.max-age.current-years}")
+    private final Duration currentYearsMaxAge;
 
     @GetMapping("/last-three")
     public ResponseEntity<List<LastHolidayDTO>> lastThree(
-            @RequestParam String country) {
-        return ResponseEntity.ok(service.getLastThreeHolidays(country));
+            @RequestParam String country,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request) {
+        LocalDate day = date == null ? LocalDate.now() : date;
+        DegradedKeys degraded = new DegradedKeys();
+        return conditional(request, day.getYear(), degraded,
+                service.getLastThreeHolidays(country, day, degraded));
     }
 
     @GetMapping("/weekday-count")
     public ResponseEntity<List<CountryHolidayCount>> weekdayCount(
             @RequestParam int year,
+            @RequestParam List<String> countries,
+            WebRequest request) {
+        DegradedKeys degraded = new DegradedKeys();
+        return conditional(request, year, degraded, service.countWeekdayHolidays(year, countries, degraded));
+    }
+
+    @GetMapping("/weekday-count/range")
+    public ResponseEntity<List<YearlyHolidayCount>> weekdayCountRange(
+            @RequestParam int fromYear,
+            @RequestParam int toYear,
+            @RequestParam List<String> countries,
+            WebRequest request) {
+        DegradedKeys degraded = new DegradedKeys();
+        return conditional(request, toYear, degraded,
+                service.countWeekdayHolidays(fromYear, toYear, countries, degraded));
+    }
+
+    /**
+     * All holidays of {@code countries} between two dates, inclusive, in date
+     * order. The array is written one year at a time as each year's lists are
+     * merged, rather than after the whole range has been loaded. There is no
+     * ETag, since computing one would mean waiting for the whole range, and
+     * for the same reason the degraded header only reflects the lists that
+     * had already loaded from fallback data when the response starts.
+     */
+    @GetMapping(value = "/range", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> range(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             @RequestParam List<String> countries) {
-        return ResponseEntity.ok(service.countWeekdayHolidays(year, countries));
+        DegradedKeys degradedKeys = new DegradedKeys();
+        Stream<CountryHolidayDTO> holidays = service.holidaysBetween(from, to, countries, degradedKeys);
+        StreamingResponseBody body = out -> {
+            try (holidays; JsonGenerator gen = objectMapper.createGenerator(out)) {
+                gen.writeStartArray();
+                for (Iterator<CountryHolidayDTO> it = holidays.iterator(); it.hasNext(); ) {
+                    gen.writeObject(it.next());
+                }
+                gen.writeEndArray();
+            }
+        };
+        List<String> degraded = degradedKeys.keys();
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl(to.getYear(), degraded))
+                .headers(headers -> markDegraded(headers, degraded))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @GetMapping("/common")
     public ResponseEntity<List<LastHolidayDTO>> common(
             @RequestParam int year,
-            @RequestParam String countryA,
-            @RequestParam String countryB) {
-        return ResponseEntity.ok(service.findCommonHolidays(year, countryA, countryB));
+            @RequestParam(required = false) String countryA,
+            @RequestParam(required = false) String countryB,
+            @RequestParam(required = false) List<String> countries,
+            WebRequest request) {
+        DegradedKeys degraded = new DegradedKeys();
+        if (countries != null && !countries.isEmpty()) {
+            return conditional(request, year, degraded, service.findCommonHolidays(year, countries, degraded));
+        }
+        if (countryA == null || countryB == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Either countries or both countryA and countryB are required");
+        }
+        return conditional(request, year, degraded,
+                service.findCommonHolidays(year, List.of(countryA, countryB), degraded));
+    }
+
+    /**
+     * Common holidays for many countries plus the country×country overlap
+     * matrix. Matrix rows are computed and written one at a time, so the
+     * response is streamed rather than built in memory, and the ETag comes
+     * from the calendars the rows are computed from.
+     */
+    @GetMapping(value = "/common/matrix", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> commonMatrix(
+            @RequestParam int year,
+            @RequestParam List<String> countries,
+            WebRequest request) {
+        if (countries.size() > maxMatrixCountries) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A matrix may cover at most " + maxMatrixCountries + " countries");
+        }
+        DegradedKeys degraded = new DegradedKeys();
+        HolidayOverlapMatrix matrix = service.overlapMatrix(year, countries, degraded);
+        return conditional(request, matrix.version(), year, degraded,
+                ok -> ok.contentType(MediaType.APPLICATION_JSON).body(matrixBody(matrix)));
+    }
+
+    private StreamingResponseBody matrixBody(HolidayOverlapMatrix matrix) {
+        return out -> {
+            try (JsonGenerator gen = objectMapper.createGenerator(out)) {
+                gen.writeStartObject();
+                gen.writeNumberField("year", matrix.year());
+                gen.writeObjectField("countries", matrix.countries());
+                gen.writeObjectField("commonHolidays", matrix.commonHolidays());
+                gen.writeArrayFieldStart("overlap");
+                int[] row = new int[matrix.size()];
+                for (int i = 0; i < matrix.size(); i++) {
+                    matrix.overlapRow(i, row);
+                    gen.writeArray(row, 0, row.length);
+                }
+                gen.writeEndArray();
+                gen.writeEndObject();
+            }
+        };
+    }
+
+    /**
+     * Answers many last-three, weekday-count and common queries in one round
+     * trip. Upstream fetches are shared across the whole batch and results are
+     * returned in query order, each with either a result or an error. Results
+     * built from fallback data list the keys concerned in {@code degraded}.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchResult>> batch(@RequestBody List<BatchQuery> queries) {
+        if (queries.size() > maxBatchQueries) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch may contain at most " + maxBatchQueries + " queries");
+        }
+        return ResponseEntity.ok(service.batch(queries));
+    }
+
+    /**
+     * Answers with {@code body}, or 304 if the client already holds it. The
+     * ETag is a hash of the JSON the body is written as, so it changes exactly
+     * when the response does.
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest request, int latestYear, DegradedKeys degraded, T body) {
+        return conditional(request, etag(body), latestYear, degraded, ok -> ok.body(body));
+    }
+
+    private String etag(Object body) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize response body", e);
+        }
+    }
+
+    /**
+     * Answers 304 if the client already holds {@code etag}, otherwise lets
+     * {@code response} build the body. Data for years before the current one
+     * no longer changes, so those responses may be cached for much longer.
+     * Callers have loaded every list the response needs by now, so
+     * {@code degradedKeys} holds those of them that came from the
+     * last-known-good store.
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest request, String etag, int latestYear,
+                                              DegradedKeys degradedKeys,
+                                              Function<ResponseEntity.BodyBuilder, ResponseEntity<T>> response) {
+        List<String> degraded = degradedKeys.keys();
+        CacheControl cacheControl = cacheControl(latestYear, degraded);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl)
+                    .headers(headers -> markDegraded(headers, degraded)).build();
+        }
+        return response.apply(ResponseEntity.ok().cacheControl(cacheControl)
+                .headers(headers -> markDegraded(headers, degraded)));
+    }
+
+    private CacheControl cacheControl(int latestYear) {
+        return latestYear < LocalDate.now().getYear()
+                ? CacheControl.maxAge(pastYearsMaxAge).cachePublic().immutable()
+                : CacheControl.maxAge(currentYearsMaxAge).cachePublic();
+    }
+
+    /** Fallback data must be revalidated, so clients pick up fresh data once upstream recovers. */
+    private CacheControl cacheControl(int latestYear, List<String> degraded) {
+        return degraded.isEmpty() ? cacheControl(latestYear) : CacheControl.noCache();
+    }
+
+    static void markDegraded(HttpHeaders headers, List<String> degraded) {
+        if (!degraded.isEmpty()) {
+            headers.set(DEGRADED_HEADER, String.join(",", degraded));
+        }
     }
 }
@@ -0,0 +1,113 @@
+package com.bingyu.holidays.controller;
+
+import com.bingyu.holidays.dto.CountryHolidayCount;
+import com.bingyu.holidays.dto.LastHolidayDTO;
+import com.bingyu.holidays.dto.YearlyHolidayCount;
+import com.bingyu.holidays.service.DegradedKeys;
+import com.bingyu.holidays.service.ReactiveHolidayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Non-blocking versions of the {@link HolidayController} endpoints. Handlers
+ * return {@link Mono}s, so the request thread is released while upstream
+ * fetches are in flight. Like the blocking endpoints, responses built from
+ * fallback data carry the {@link HolidayController#DEGRADED_HEADER} header.
+ * Streams send their headers together with the first element, so like the
+ * blocking {@code /range} the header lists the fallback data read up to then.
+ */
+@RestController
+@RequestMapping("/reactive/holidays")
+@Validated
+@RequiredArgsConstructor
+public class ReactiveHolidayController {
+
+    private final ReactiveHolidayService service;
+
+    @GetMapping("/last-three")
+    public Mono<ResponseEntity<List<LastHolidayDTO>>> lastThree(
+            @RequestParam String country,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        DegradedKeys degraded = new DegradedKeys();
+        return service.getLastThreeHolidays(country, date == null ? LocalDate.now() : date, degraded)
+                .map(holidays -> withDegraded(holidays, degraded));
+    }
+
+    @GetMapping("/weekday-count")
+    public Mono<ResponseEntity<List<CountryHolidayCount>>> weekdayCount(
+            @RequestParam int year,
+            @RequestParam List<String> countries) {
+        DegradedKeys degraded = new DegradedKeys();
+        return service.countWeekdayHolidays(year, countries, degraded)
+                .map(counts -> withDegraded(counts, degraded));
+    }
+
+    /**
+     * Streams each country's count as soon as it is known, as NDJSON or
+     * server-sent events depending on the {@code Accept} header.
+     */
+    @GetMapping(value = "/weekday-count/stream",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Mono<ResponseEntity<Flux<CountryHolidayCount>>> weekdayCountStream(
+            @RequestParam int year,
+            @RequestParam List<String> countries) {
+        DegradedKeys degraded = new DegradedKeys();
+        return streamWithDegraded(service.streamWeekdayHolidays(year, countries, degraded), degraded);
+    }
+
+    @GetMapping(value = "/weekday-count/range/stream",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Mono<ResponseEntity<Flux<YearlyHolidayCount>>> weekdayCountRangeStream(
+            @RequestParam int fromYear,
+            @RequestParam int toYear,
+            @RequestParam List<String> countries) {
+        DegradedKeys degraded = new DegradedKeys();
+        return streamWithDegraded(service.streamWeekdayHolidays(fromYear, toYear, countries, degraded), degraded);
+    }
+
+    @GetMapping("/common")
+    public Mono<ResponseEntity<List<LastHolidayDTO>>> common(
+            @RequestParam int year,
+            @RequestParam(required = false) String countryA,
+            @RequestParam(required = false) String countryB,
+            @RequestParam(required = false) List<String> countries) {
+        if ((countries == null || countries.isEmpty()) && (countryA == null || countryB == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Either countries or both countryA and countryB are required");
+        }
+        DegradedKeys degraded = new DegradedKeys();
+        List<String> codes = countries != null && !countries.isEmpty() ? countries : List.of(countryA, countryB);
+        return service.findCommonHolidays(year, codes, degraded)
+                .map(holidays -> withDegraded(holidays, degraded));
+    }
+
+    /**
+     * Answers once {@code stream} has emitted its first element (or ended), so
+     * the headers can mark the fallback data read by then. The stream keeps
+     * running meanwhile and the body replays what it has already emitted.
+     */
+    private static <T> Mono<ResponseEntity<Flux<T>>> streamWithDegraded(Flux<T> stream, DegradedKeys degraded) {
+        Flux<T> body = stream.cache();
+        return body.take(1).then(Mono.fromSupplier(() -> withDegraded(body, degraded)));
+    }
+
+    private static <T> ResponseEntity<T> withDegraded(T body, DegradedKeys degraded) {
+        return ResponseEntity.ok()
+                .headers(headers -> HolidayController.markDegraded(headers, degraded.keys()))
+                .body(body);
+    }
+}
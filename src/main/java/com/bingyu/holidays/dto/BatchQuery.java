@@ -0,0 +1,32 @@
+package com.bingyu.holidays.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One query of a batch request. {@code last-three} uses {@code country} and the
+ * optional {@code date}; {@code weekday-count} and {@code common} use
+ * {@code year} and {@code countries}. {@code id} is echoed back in the result.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchQuery {
+
+    private String id;
+
+    private BatchQueryType type;
+
+    private String country;
+
+    private LocalDate date;
+
+    private Integer year;
+
+    private List<String> countries;
+
+}
@@ -0,0 +1,15 @@
+package com.bingyu.holidays.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Kinds of query accepted by the batch endpoint, named after the matching GET endpoints.
+ */
+public enum BatchQueryType {
+    @JsonProperty("last-three")
+    LAST_THREE,
+    @JsonProperty("weekday-count")
+    WEEKDAY_COUNT,
+    @JsonProperty("common")
+    COMMON
+}
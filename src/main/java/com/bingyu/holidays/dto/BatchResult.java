@@ -0,0 +1,39 @@
+package com.bingyu.holidays.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of one batch query: either {@code result}, shaped like the response
+ * of the matching GET endpoint, or an {@code error} message. {@code degraded}
+ * lists the {@code year-country} keys a result was built from fallback data
+ * for, like the {@code X-Holidays-Degraded} header of the GET endpoints.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResult {
+
+    private String id;
+
+    private BatchQueryType type;
+
+    private Object result;
+
+    private String error;
+
+    private List<String> degraded;
+
+    public static BatchResult success(BatchQuery query, Object result) {
+        return new BatchResult(query.getId(), query.getType(), result, null, null);
+    }
+
+    public static BatchResult failure(BatchQuery query, String error) {
+        return new BatchResult(query.getId(), query.getType(), null, error, null);
+    }
+}
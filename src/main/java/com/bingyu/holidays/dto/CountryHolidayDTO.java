@@ -0,0 +1,22 @@
+package com.bingyu.holidays.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CountryHolidayDTO {
+
+    private LocalDate date;
+
+    private String countryCode;
+
+    private String name;
+
+    private String localName;
+
+}
@@ -0,0 +1,18 @@
+package com.bingyu.holidays.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class YearlyHolidayCount {
+
+    private int year;
+
+    private String countryCode;
+
+    private int weekdayHolidayCount;
+
+}
@@ -0,0 +1,14 @@
+package com.bingyu.holidays.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a requested year or date range is empty, inverted or too large.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRangeException extends RuntimeException {
+    public InvalidRangeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.bingyu.holidays.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a call to the upstream API could not get a concurrency permit
+ * before its deadline.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class UpstreamSaturatedException extends RuntimeException {
+    public UpstreamSaturatedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.bingyu.holidays.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an upstream call, including any hedged attempt, does not finish
+ * within its deadline.
+ */
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class UpstreamTimeoutException extends RuntimeException {
+    public UpstreamTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,61 @@
+package com.bingyu.holidays.index;
+
+import com.bingyu.holidays.dto.LastHolidayDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps computed common-holiday lists per year and country list. A result is
+ * reused while every country's {@link HolidayCalendar} is the instance it was
+ * computed from; {@link HolidayCalendarRegistry} replaces a calendar exactly
+ * when that country's cached holiday list changes, so a changed list
+ * invalidates every result that depends on it.
+ *
+ * <p>Country order is part of the key because holidays are named with the
+ * first country's local names.
+ */
+@Component
+public class CommonHolidayRegistry {
+
+    private static final int MAX_RESULTS = 10_000;
+
+    private record ResultKey(int year, List<String> countries) {
+    }
+
+    private record Entry(List<HolidayCalendar> sources, List<LastHolidayDTO> holidays) {
+    }
+
+    private final Cache<ResultKey, Entry> results = Caffeine.newBuilder()
+            .maximumSize(MAX_RESULTS)
+            .build();
+
+    /**
+     * Returns the holidays common to {@code countries} in {@code year}, given
+     * their calendars in the same order. The returned list is shared and unmodifiable.
+     */
+    public List<LastHolidayDTO> get(int year, List<String> countries, List<HolidayCalendar> calendars) {
+        ResultKey key = new ResultKey(year, List.copyOf(countries));
+        Entry entry = results.getIfPresent(key);
+        if (entry == null || !sameCalendars(entry.sources(), calendars)) {
+            List<LastHolidayDTO> holidays = new HolidayOverlapMatrix(year, countries, calendars).commonHolidays();
+            entry = new Entry(List.copyOf(calendars), List.copyOf(holidays));
+            results.put(key, entry);
+        }
+        return entry.holidays();
+    }
+
+    private static boolean sameCalendars(List<HolidayCalendar> a, List<HolidayCalendar> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
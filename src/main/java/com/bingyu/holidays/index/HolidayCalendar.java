@@ -0,0 +1,183 @@
+package com.bingyu.holidays.index;
+
+import com.bingyu.holidays.model.Holiday;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One country's holidays for one year as a 366-bit day-of-year bitset
+ * (bit {@code dayOfYear - 1}). Weekday counts are a popcount against the
+ * year's precomputed weekend mask, and holidays common to any number of
+ * countries are the word-wise AND of their bitsets.
+ */
+public final class HolidayCalendar {
+    static final int WORDS = 6;
+
+    /** Every year's weekend mask is one of 14, fixed by the weekday of 1 January and leap years. */
+    private static final long[][] WEEKEND_MASKS = new long[14][];
+
+    static {
+        for (DayOfWeek first : DayOfWeek.values()) {
+            WEEKEND_MASKS[maskIndex(first, false)] = computeWeekendMask(first, 365);
+            WEEKEND_MASKS[maskIndex(first, true)] = computeWeekendMask(first, 366);
+        }
+    }
+
+    private final int year;
+    private final long[] days;
+    /** Local name of the first holiday on each set day, in bit order; null where it has none. */
+    private final String[] localNames;
+    private final int weekdayCount;
+
+    private HolidayCalendar(int year, long[] days, String[] localNames, int weekdayCount) {
+        this.year = year;
+        this.days = days;
+        this.localNames = localNames;
+        this.weekdayCount = weekdayCount;
+    }
+
+    /**
+     * Builds the calendar for {@code year}; holidays dated in other years are ignored.
+     */
+    public static HolidayCalendar build(int year, List<Holiday> holidays) {
+        long[] days = new long[WORDS];
+        String[] namesByDay = new String[WORDS * Long.SIZE];
+        long[] weekend = weekendMask(year);
+        int weekdayEntries = 0;
+        for (Holiday h : holidays) {
+            LocalDate date = h.getDate();
+            if (date.getYear() != year) {
+                continue;
+            }
+            int bit = date.getDayOfYear() - 1;
+            if ((weekend[bit >>> 6] & (1L << bit)) == 0) {
+                weekdayEntries++;
+            }
+            if ((days[bit >>> 6] & (1L << bit)) == 0) {
+                days[bit >>> 6] |= 1L << bit;
+                namesByDay[bit] = h.getLocalName();
+            }
+        }
+        // One slot per set bit, so ranks line up even where the local name is null.
+        List<String> names = new ArrayList<>();
+        for (int w = 0; w < WORDS; w++) {
+            for (long word = days[w]; word != 0; word &= word - 1) {
+                names.add(namesByDay[(w << 6) + Long.numberOfTrailingZeros(word)]);
+            }
+        }
+        return new HolidayCalendar(year, days, names.toArray(new String[0]), weekdayEntries);
+    }
+
+    public int year() {
+        return year;
+    }
+
+    /**
+     * Writes the holiday dates and their local names, so equal calendars
+     * write equal bytes on every replica.
+     */
+    public void writeContent(DataOutput out) throws IOException {
+        out.writeInt(year);
+        for (long word : days) {
+            out.writeLong(word);
+        }
+        out.writeInt(localNames.length);
+        for (String name : localNames) {
+            out.writeBoolean(name != null);
+            if (name != null) {
+                out.writeUTF(name);
+            }
+        }
+    }
+
+    /**
+     * Number of holiday entries falling Monday to Friday. Entries sharing a date
+     * are counted individually, matching the upstream list.
+     */
+    public int weekdayCount() {
+        return weekdayCount;
+    }
+
+    /**
+     * Number of distinct holiday dates falling Monday to Friday.
+     */
+    public int weekdayDateCount() {
+        long[] weekend = weekendMask(year);
+        int count = 0;
+        for (int w = 0; w < WORDS; w++) {
+            count += Long.bitCount(days[w] & ~weekend[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Number of dates that are holidays in both this calendar and {@code other}.
+     */
+    public int overlapCount(HolidayCalendar other) {
+        int count = 0;
+        for (int w = 0; w < WORDS; w++) {
+            count += Long.bitCount(days[w] & other.days[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Copies this calendar's bitset into {@code target}.
+     */
+    public void copyDaysTo(long[] target) {
+        System.arraycopy(days, 0, target, 0, WORDS);
+    }
+
+    /**
+     * Intersects {@code target} in place with this calendar's days.
+     */
+    public void andInto(long[] target) {
+        for (int w = 0; w < WORDS; w++) {
+            target[w] &= days[w];
+        }
+    }
+
+    /**
+     * Local name of the holiday on the zero-based day of year {@code bit}, which must be set;
+     * null if that holiday has none.
+     */
+    public String localNameAt(int bit) {
+        int word = bit >>> 6;
+        int rank = 0;
+        for (int w = 0; w < word; w++) {
+            rank += Long.bitCount(days[w]);
+        }
+        rank += Long.bitCount(days[word] & ((1L << bit) - 1));
+        return localNames[rank];
+    }
+
+    public static long[] newBitset() {
+        return new long[WORDS];
+    }
+
+    static long[] weekendMask(int year) {
+        LocalDate first = LocalDate.of(year, 1, 1);
+        return WEEKEND_MASKS[maskIndex(first.getDayOfWeek(), first.isLeapYear())];
+    }
+
+    private static int maskIndex(DayOfWeek first, boolean leap) {
+        return (first.getValue() - 1) * 2 + (leap ? 1 : 0);
+    }
+
+    private static long[] computeWeekendMask(DayOfWeek first, int length) {
+        long[] mask = new long[WORDS];
+        int dow = first.getValue();
+        for (int bit = 0; bit < length; bit++) {
+            if (dow == DayOfWeek.SATURDAY.getValue() || dow == DayOfWeek.SUNDAY.getValue()) {
+                mask[bit >>> 6] |= 1L << bit;
+            }
+            dow = dow == 7 ? 1 : dow + 1;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,37 @@
+package com.bingyu.holidays.index;
+
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.model.HolidayKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the {@link HolidayCalendar} built for each {@code (year, country)}.
+ * Like {@link HolidayIndexRegistry}, a calendar is reused while the cache keeps
+ * handing out the list instance it was built from.
+ */
+@Component
+public class HolidayCalendarRegistry {
+
+    private static final int MAX_CALENDARS = 5_000;
+
+    private record Entry(List<Holiday> source, HolidayCalendar calendar) {
+    }
+
+    private final Cache<HolidayKey, Entry> calendars = Caffeine.newBuilder()
+            .maximumSize(MAX_CALENDARS)
+            .build();
+
+    public HolidayCalendar get(int year, String countryCode, List<Holiday> holidays) {
+        HolidayKey key = new HolidayKey(year, countryCode);
+        Entry entry = calendars.getIfPresent(key);
+        if (entry == null || entry.source() != holidays) {
+            entry = new Entry(holidays, HolidayCalendar.build(year, holidays));
+            calendars.put(key, entry);
+        }
+        return entry.calendar();
+    }
+}
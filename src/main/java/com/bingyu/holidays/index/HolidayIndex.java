@@ -0,0 +1,104 @@
+package com.bingyu.holidays.index;
+
+import com.bingyu.holidays.model.Holiday;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, date-sorted view of one country's holidays across a span of
+ * years. Dates are held as epoch-day ints so that "last N on or before D" and
+ * "next N after D" are a binary search plus index arithmetic:
+ * <ul>
+ *     <li>the last {@code n} holidays on or before {@code d} are the indices
+ *     {@code [end - n, end)} with {@code end = endOnOrBefore(d)}, newest at {@code end - 1};</li>
+ *     <li>the next {@code n} holidays after {@code d} are {@code [start, start + n)}
+ *     with {@code start = endOnOrBefore(d)}.</li>
+ * </ul>
+ * Lookups do not allocate.
+ */
+public final class HolidayIndex {
+
+    private final int fromYear;
+    private final int toYear;
+    private final int[] epochDays;
+    private final String[] names;
+    private final String[] localNames;
+
+    private HolidayIndex(int fromYear, int toYear, int[] epochDays, String[] names, String[] localNames) {
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.epochDays = epochDays;
+        this.names = names;
+        this.localNames = localNames;
+    }
+
+    /**
+     * Builds an index from one holiday list per year, starting at {@code fromYear}.
+     */
+    public static HolidayIndex build(int fromYear, List<List<Holiday>> holidaysByYear) {
+        List<Holiday> all = new ArrayList<>();
+        holidaysByYear.forEach(all::addAll);
+        all.sort(Comparator.comparing(Holiday::getDate));
+        int size = all.size();
+        int[] days = new int[size];
+        String[] names = new String[size];
+        String[] localNames = new String[size];
+        for (int i = 0; i < size; i++) {
+            Holiday h = all.get(i);
+            days[i] = (int) h.getDate().toEpochDay();
+            names[i] = h.getName();
+            localNames[i] = h.getLocalName();
+        }
+        return new HolidayIndex(fromYear, fromYear + holidaysByYear.size() - 1, days, names, localNames);
+    }
+
+    public int fromYear() {
+        return fromYear;
+    }
+
+    public int toYear() {
+        return toYear;
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    /**
+     * Number of holidays on or before {@code date}; equivalently the exclusive
+     * end of the "on or before" range and the start of the "after" range.
+     */
+    public int endOnOrBefore(LocalDate date) {
+        int key = (int) date.toEpochDay();
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public int epochDayAt(int i) {
+        return epochDays[i];
+    }
+
+    public LocalDate dateAt(int i) {
+        return LocalDate.ofEpochDay(epochDays[i]);
+    }
+
+    public String nameAt(int i) {
+        return names[i];
+    }
+
+    public String localNameAt(int i) {
+        return localNames[i];
+    }
+}
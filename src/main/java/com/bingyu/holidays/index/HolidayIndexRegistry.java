@@ -0,0 +1,59 @@
+package com.bingyu.holidays.index;
+
+import com.bingyu.holidays.model.Holiday;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Keeps the most recently built {@link HolidayIndex} per country and year span.
+ * An index is reused as long as the loader keeps returning the same list
+ * instances it was built from, which is the case while those lists sit in the
+ * holiday cache; when the cache hands out a new list the index is rebuilt.
+ */
+@Component
+public class HolidayIndexRegistry {
+
+    private static final int MAX_INDEXES = 2_000;
+
+    private record IndexKey(String countryCode, int fromYear, int toYear) {
+    }
+
+    private record Entry(List<List<Holiday>> sources, HolidayIndex index) {
+    }
+
+    private final Cache<IndexKey, Entry> indexes = Caffeine.newBuilder()
+            .maximumSize(MAX_INDEXES)
+            .build();
+
+    /**
+     * Returns the index of {@code countryCode}'s holidays for {@code fromYear..toYear},
+     * loading each year's list through {@code loader}.
+     */
+    public HolidayIndex get(String countryCode, int fromYear, int toYear, IntFunction<List<Holiday>> loader) {
+        List<List<Holiday>> sources = new ArrayList<>(toYear - fromYear + 1);
+        for (int year = fromYear; year <= toYear; year++) {
+            sources.add(loader.apply(year));
+        }
+        IndexKey key = new IndexKey(countryCode, fromYear, toYear);
+        Entry entry = indexes.getIfPresent(key);
+        if (entry == null || !sameLists(entry.sources(), sources)) {
+            entry = new Entry(sources, HolidayIndex.build(fromYear, sources));
+            indexes.put(key, entry);
+        }
+        return entry.index();
+    }
+
+    private static boolean sameLists(List<List<Holiday>> a, List<List<Holiday>> b) {
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
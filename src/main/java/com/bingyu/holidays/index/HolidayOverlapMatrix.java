@@ -0,0 +1,107 @@
+package com.bingyu.holidays.index;
+
+import com.bingyu.holidays.dto.LastHolidayDTO;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holiday overlap between a set of countries for one year. Holds only the
+ * per-country calendars and their common bitset; rows of the country×country
+ * overlap matrix are computed on demand so large matrices can be streamed
+ * without being materialised.
+ */
+public final class HolidayOverlapMatrix {
+
+    private final int year;
+    private final List<String> countries;
+    private final List<HolidayCalendar> calendars;
+    private final long[] common;
+
+    public HolidayOverlapMatrix(int year, List<String> countries, List<HolidayCalendar> calendars) {
+        if (countries.size() != calendars.size()) {
+            throw new IllegalArgumentException("Expected one calendar per country");
+        }
+        this.year = year;
+        this.countries = List.copyOf(countries);
+        this.calendars = List.copyOf(calendars);
+        this.common = HolidayCalendar.newBitset();
+        if (!calendars.isEmpty()) {
+            calendars.get(0).copyDaysTo(common);
+            for (int i = 1; i < calendars.size(); i++) {
+                calendars.get(i).andInto(common);
+            }
+        }
+    }
+
+    public int year() {
+        return year;
+    }
+
+    public List<String> countries() {
+        return countries;
+    }
+
+    public int size() {
+        return countries.size();
+    }
+
+    /**
+     * MD5 of everything the common holidays and overlap rows are computed
+     * from, in hex, usable as an ETag without computing the rows.
+     */
+    public String version() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(countries.size());
+            for (String country : countries) {
+                out.writeUTF(country);
+            }
+            for (HolidayCalendar calendar : calendars) {
+                calendar.writeContent(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return DigestUtils.md5DigestAsHex(bytes.toByteArray());
+    }
+
+    /**
+     * Dates that are holidays in every country, in date order, named with the
+     * local name used by the first country.
+     */
+    public List<LastHolidayDTO> commonHolidays() {
+        List<LastHolidayDTO> result = new ArrayList<>();
+        if (calendars.isEmpty()) {
+            return result;
+        }
+        HolidayCalendar first = calendars.get(0);
+        LocalDate jan1 = LocalDate.of(year, 1, 1);
+        for (int w = 0; w < common.length; w++) {
+            long word = common[w];
+            while (word != 0) {
+                int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+                result.add(new LastHolidayDTO(jan1.plusDays(bit), first.localNameAt(bit)));
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fills {@code row} with the number of shared holiday dates between country
+     * {@code i} and every country; {@code row[i]} is country {@code i}'s own date count.
+     */
+    public void overlapRow(int i, int[] row) {
+        HolidayCalendar calendar = calendars.get(i);
+        for (int j = 0; j < calendars.size(); j++) {
+            row[j] = calendar.overlapCount(calendars.get(j));
+        }
+    }
+}
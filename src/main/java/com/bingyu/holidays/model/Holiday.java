@@ -1,19 +1,21 @@
 package com.bingyu.holidays.model;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Value;
 
 import java.time.LocalDate;
 
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
+/**
+ * One public holiday. Instances are immutable and shared between caches,
+ * indexes and snapshots; names are usually {@link HolidayNames#intern interned}.
+ */
+@Value
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class Holiday {
 
-    private LocalDate date;
+    LocalDate date;
 
-    private String name;
+    String name;
 
-    private String localName;
+    String localName;
 }
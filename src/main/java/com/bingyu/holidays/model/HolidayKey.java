@@ -0,0 +1,23 @@
+package com.bingyu.holidays.model;
+
+/**
+ * Identifies one upstream holiday list: a country's public holidays for a year.
+ */
+public record HolidayKey(int year, String countryCode) {
+
+    /**
+     * Parses the {@code year-country} form produced by {@link #toString()}.
+     */
+    public static HolidayKey parse(String value) {
+        int dash = value.indexOf('-');
+        if (dash <= 0) {
+            throw new IllegalArgumentException("Not a holiday key: " + value);
+        }
+        return new HolidayKey(Integer.parseInt(value.substring(0, dash)), value.substring(dash + 1));
+    }
+
+    @Override
+    public String toString() {
+        return year + "-" + countryCode;
+    }
+}
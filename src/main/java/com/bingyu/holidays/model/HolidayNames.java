@@ -0,0 +1,37 @@
+package com.bingyu.holidays.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Canonical instances of holiday names. The same names recur across years
+ * and, for English names, across countries, so every decoded list shares one
+ * copy of each. The table is bounded; once full, new names are kept as given.
+ */
+public final class HolidayNames {
+    static final int MAX_NAMES = 100_000;
+
+    private static final ConcurrentMap<String, String> NAMES = new ConcurrentHashMap<>();
+
+    private HolidayNames() {
+    }
+
+    public static String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        String canonical = NAMES.get(name);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (NAMES.size() >= MAX_NAMES) {
+            return name;
+        }
+        canonical = NAMES.putIfAbsent(name, name);
+        return canonical != null ? canonical : name;
+    }
+
+    public static int size() {
+        return NAMES.size();
+    }
+}
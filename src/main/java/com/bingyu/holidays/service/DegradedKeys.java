@@ -0,0 +1,52 @@
+package com.bingyu.holidays.service;
+
+import com.bingyu.holidays.cache.LastKnownGoodStore;
+import com.bingyu.holidays.client.HolidayApiClient;
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.model.HolidayKey;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code year-country} keys one response was built from fallback data
+ * for. Only lists the response actually read are recorded, so a response is
+ * never marked because another request fell back for the same key.
+ */
+public final class DegradedKeys {
+    private final Set<HolidayKey> keys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Returns {@code holidays} unchanged, recording the key if they were
+     * served from the last-known-good store.
+     */
+    public List<Holiday> record(int year, String countryCode, List<Holiday> holidays) {
+        if (holidays instanceof LastKnownGoodStore.StaleHolidays) {
+            add(year, countryCode);
+        }
+        return holidays;
+    }
+
+    public void add(int year, String countryCode) {
+        keys.add(new HolidayKey(year, countryCode));
+    }
+
+    /** {@code source}, recording every list it returns. */
+    HolidayApiClient track(HolidayApiClient source) {
+        return (year, countryCode) -> record(year, countryCode, source.fetchHolidays(year, countryCode));
+    }
+
+    public boolean isEmpty() {
+        return keys.isEmpty();
+    }
+
+    /** The keys recorded so far, by year and then country. */
+    public List<String> keys() {
+        return keys.stream()
+                .sorted(Comparator.comparingInt(HolidayKey::year).thenComparing(HolidayKey::countryCode))
+                .map(HolidayKey::toString)
+                .toList();
+    }
+}
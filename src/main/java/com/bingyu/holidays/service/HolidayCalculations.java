@@ -0,0 +1,101 @@
+package com.bingyu.holidays.service;
+
+import com.bingyu.holidays.dto.CountryHolidayDTO;
+import com.bingyu.holidays.dto.LastHolidayDTO;
+import com.bingyu.holidays.exception.InvalidRangeException;
+import com.bingyu.holidays.index.HolidayIndex;
+import com.bingyu.holidays.model.Holiday;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Pure computations and checks shared by the blocking and reactive holiday services.
+ */
+final class HolidayCalculations {
+    static final int LAST_HOLIDAYS_LIMIT = 3;
+
+    private HolidayCalculations() {
+    }
+
+    /**
+     * Returns the most recent holidays in {@code index} on or before {@code date}, newest first.
+     */
+    static List<LastHolidayDTO> lastHolidays(HolidayIndex index, LocalDate date) {
+        int end = index.endOnOrBefore(date);
+        int start = Math.max(0, end - LAST_HOLIDAYS_LIMIT);
+        List<LastHolidayDTO> result = new ArrayList<>(end - start);
+        for (int i = end - 1; i >= start; i--) {
+            result.add(new LastHolidayDTO(index.dateAt(i), index.nameAt(i)));
+        }
+        return result;
+    }
+
+    static int countWeekdays(List<Holiday> holidays) {
+        return (int) holidays.stream()
+                .map(Holiday::getDate)
+                .filter(d -> d.getDayOfWeek() != DayOfWeek.SATURDAY
+                        && d.getDayOfWeek() != DayOfWeek.SUNDAY)
+                .count();
+    }
+
+    /**
+     * Rejects years {@link LocalDate} cannot represent, before any lookup.
+     */
+    static void validateYear(int year) {
+        if (year < Year.MIN_VALUE || year > Year.MAX_VALUE) {
+            throw new InvalidRangeException("Year out of range: " + year);
+        }
+    }
+
+    /**
+     * Merges one holiday list per country into a single date-ordered list,
+     * keeping {@code countries} order among holidays on the same date. Each
+     * list is walked once with a cursor; only the k cursor heads are compared.
+     */
+    static List<CountryHolidayDTO> mergeByDate(List<String> countries, List<List<Holiday>> lists) {
+        List<List<Holiday>> sorted = new ArrayList<>(lists.size());
+        int total = 0;
+        for (List<Holiday> list : lists) {
+            sorted.add(sortedByDate(list));
+            total += list.size();
+        }
+        // Each head is {list index, position}; ties go to the earlier country.
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sorted.size()), (a, b) -> {
+            int byDate = sorted.get(a[0]).get(a[1]).getDate().compareTo(sorted.get(b[0]).get(b[1]).getDate());
+            return byDate != 0 ? byDate : Integer.compare(a[0], b[0]);
+        });
+        for (int i = 0; i < sorted.size(); i++) {
+            if (!sorted.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+        List<CountryHolidayDTO> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<Holiday> list = sorted.get(head[0]);
+            Holiday h = list.get(head[1]);
+            merged.add(new CountryHolidayDTO(h.getDate(), countries.get(head[0]), h.getName(), h.getLocalName()));
+            if (++head[1] < list.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    private static List<Holiday> sortedByDate(List<Holiday> holidays) {
+        for (int i = 1; i < holidays.size(); i++) {
+            if (holidays.get(i).getDate().isBefore(holidays.get(i - 1).getDate())) {
+                List<Holiday> copy = new ArrayList<>(holidays);
+                copy.sort(Comparator.comparing(Holiday::getDate));
+                return copy;
+            }
+        }
+        return holidays;
+    }
+}
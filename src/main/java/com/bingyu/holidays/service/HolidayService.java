@@ -1,80 +1,343 @@
 package com.bingyu.holidays.service;
 
 import com.bingyu.holidays.client.HolidayApiClient;
+import com.bingyu.holidays.config.BoundedExecutor;
 import com.bingyu.holidays.config.CountryCodeLoader;
+import com.bingyu.holidays.dto.BatchQuery;
+import com.bingyu.holidays.dto.BatchResult;
 import com.bingyu.holidays.dto.CountryHolidayCount;
-import com.bingyu.holidays.dto.HolidayMapper;
+import com.bingyu.holidays.dto.CountryHolidayDTO;
 import com.bingyu.holidays.dto.LastHolidayDTO;
+import com.bingyu.holidays.dto.YearlyHolidayCount;
 import com.bingyu.holidays.exception.InvalidCountryCodeException;
+import com.bingyu.holidays.exception.InvalidRangeException;
+import com.bingyu.holidays.index.CommonHolidayRegistry;
+import com.bingyu.holidays.index.HolidayCalendar;
+import com.bingyu.holidays.index.HolidayCalendarRegistry;
+import com.bingyu.holidays.index.HolidayIndex;
+import com.bingyu.holidays.index.HolidayIndexRegistry;
+import com.bingyu.holidays.index.HolidayOverlapMatrix;
 import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.model.HolidayKey;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class HolidayService {
-    private static final int LAST_HOLIDAYS_LIMIT = 3;
+    private static final int LAST_HOLIDAYS_LIMIT = HolidayCalculations.LAST_HOLIDAYS_LIMIT;
 
     private final HolidayApiClient apiClient;
-    private final HolidayMapper mapper;
+    private final HolidayIndexRegistry indexRegistry;
+    private final HolidayCalendarRegistry calendarRegistry;
+    private final CommonHolidayRegistry commonRegistry;
     private final Executor executor;
     private final CountryCodeLoader codeLoader;
+    @Value("${holidays.executor.max-concurrency-per-request}")
+    private final int maxConcurrencyPerRequest;
+    @Value("${holidays.range.max-years}")
+    private final int maxYears;
 
     public List<LastHolidayDTO> getLastThreeHolidays(String countryCode) {
+        return getLastThreeHolidays(countryCode, LocalDate.now());
+    }
+
+    /**
+     * Returns the three most recent holidays on or before {@code date}, newest first.
+     * If fewer than three fall in {@code date}'s year, the previous year is included.
+     */
+    public List<LastHolidayDTO> getLastThreeHolidays(String countryCode, LocalDate date) {
+        return getLastThreeHolidays(countryCode, date, new DegradedKeys());
+    }
+
+    /**
+     * As {@link #getLastThreeHolidays(String, LocalDate)}, recording in
+     * {@code degraded} the lists read that came from fallback data.
+     */
+    public List<LastHolidayDTO> getLastThreeHolidays(String countryCode, LocalDate date, DegradedKeys degraded) {
         validateCountryCode(countryCode);
-        return fetchHolidaysUpToToday(countryCode).stream()
-                .sorted(Comparator.comparing(Holiday::getDate).reversed())
-                .limit(LAST_HOLIDAYS_LIMIT)
-                .map(mapper::toLastHolidayDTO)
-                .collect(Collectors.toList());
+        return lastThree(countryCode, date, degraded.track(apiClient));
+    }
+
+    private List<LastHolidayDTO> lastThree(String countryCode, LocalDate date, HolidayApiClient source) {
+        int year = date.getYear();
+        HolidayIndex index = indexRegistry.get(countryCode, year, year, y -> source.fetchHolidays(y, countryCode));
+        if (index.endOnOrBefore(date) < LAST_HOLIDAYS_LIMIT) {
+            index = indexRegistry.get(countryCode, year - 1, year, y -> source.fetchHolidays(y, countryCode));
+        }
+        return HolidayCalculations.lastHolidays(index, date);
     }
 
     public List<CountryHolidayCount> countWeekdayHolidays(int year, List<String> countries) {
+        return countWeekdayHolidays(year, countries, new DegradedKeys());
+    }
+
+    public List<CountryHolidayCount> countWeekdayHolidays(int year, List<String> countries, DegradedKeys degraded) {
+        HolidayCalculations.validateYear(year);
         validateCountryCodes(countries);
-        List<CompletableFuture<CountryHolidayCount>> futures = countries.stream()
-                .map(code -> CompletableFuture.supplyAsync(() -> {
-                    long count = apiClient.fetchHolidays(year, code).stream()
-                            .map(Holiday::getDate)
-                            .filter(d -> d.getDayOfWeek() != DayOfWeek.SATURDAY
-                                    && d.getDayOfWeek() != DayOfWeek.SUNDAY)
-                            .count();
-                    return new CountryHolidayCount(code, (int) count);
-                }, executor))
-                .toList();
+        return weekdayCounts(countries, loadCalendars(year, countries, degraded.track(apiClient)));
+    }
+
+    private static List<CountryHolidayCount> weekdayCounts(List<String> countries, List<HolidayCalendar> calendars) {
+        List<CountryHolidayCount> counts = new ArrayList<>(countries.size());
+        for (int i = 0; i < countries.size(); i++) {
+            counts.add(new CountryHolidayCount(countries.get(i), calendars.get(i).weekdayCount()));
+        }
+        counts.sort(Comparator.comparingInt(CountryHolidayCount::getWeekdayHolidayCount).reversed());
+        return counts;
+    }
 
+    /**
+     * Weekday counts for every {@code (year, country)} in {@code fromYear..toYear},
+     * ordered by year and, within a year, by count descending. All calendars are
+     * loaded in parallel, bounded per request.
+     */
+    public List<YearlyHolidayCount> countWeekdayHolidays(int fromYear, int toYear, List<String> countries) {
+        return countWeekdayHolidays(fromYear, toYear, countries, new DegradedKeys());
+    }
+
+    public List<YearlyHolidayCount> countWeekdayHolidays(int fromYear, int toYear, List<String> countries,
+                                                         DegradedKeys degraded) {
+        validateYearRange(fromYear, toYear);
+        validateCountryCodes(countries);
+        HolidayApiClient source = degraded.track(apiClient);
+        Executor requestExecutor = new BoundedExecutor(executor, maxConcurrencyPerRequest);
+        List<CompletableFuture<YearlyHolidayCount>> futures = new ArrayList<>();
+        for (int year = fromYear; year <= toYear; year++) {
+            int y = year;
+            for (String code : countries) {
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> new YearlyHolidayCount(y, code, calendar(y, code, source).weekdayCount()),
+                        requestExecutor));
+            }
+        }
         CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
         return futures.stream()
                 .map(CompletableFuture::join)
-                .sorted(Comparator.comparingInt(CountryHolidayCount::getWeekdayHolidayCount).reversed())
-                .collect(Collectors.toList());
+                .sorted(Comparator.comparingInt(YearlyHolidayCount::getYear)
+                        .thenComparing(Comparator.comparingInt(YearlyHolidayCount::getWeekdayHolidayCount).reversed()))
+                .toList();
+    }
+
+    /**
+     * Holidays of {@code countries} from {@code from} to {@code to} inclusive, in
+     * date order and, on the same date, in {@code countries} order.
+     *
+     * <p>Every {@code (year, country)} list is requested up front, earliest year
+     * first, on the bounded per-request executor. The returned stream then waits
+     * for and merges one year at a time, so the caller can write the first year
+     * while later years are still loading.
+     */
+    public Stream<CountryHolidayDTO> holidaysBetween(LocalDate from, LocalDate to, List<String> countries) {
+        return holidaysBetween(from, to, countries, new DegradedKeys());
+    }
+
+    /**
+     * As {@link #holidaysBetween(LocalDate, LocalDate, List)}, recording each
+     * list in {@code degraded} as soon as it has loaded.
+     */
+    public Stream<CountryHolidayDTO> holidaysBetween(LocalDate from, LocalDate to, List<String> countries,
+                                                     DegradedKeys degraded) {
+        if (from.isAfter(to)) {
+            throw new InvalidRangeException("Date range must be ascending: " + from + ".." + to);
+        }
+        int fromYear = from.getYear();
+        validateYearRange(fromYear, to.getYear());
+        validateCountryCodes(countries);
+        HolidayApiClient source = degraded.track(apiClient);
+        Executor requestExecutor = new BoundedExecutor(executor, maxConcurrencyPerRequest);
+        List<List<CompletableFuture<List<Holiday>>>> byYear = new ArrayList<>();
+        for (int year = fromYear; year <= to.getYear(); year++) {
+            int y = year;
+            byYear.add(countries.stream()
+                    .map(code -> CompletableFuture.supplyAsync(() -> source.fetchHolidays(y, code), requestExecutor))
+                    .toList());
+        }
+        return IntStream.range(0, byYear.size())
+                .mapToObj(i -> HolidayCalculations.mergeByDate(countries, byYear.get(i).stream()
+                        .map(CompletableFuture::join)
+                        .toList()))
+                .flatMap(List::stream)
+                .filter(h -> !h.getDate().isBefore(from) && !h.getDate().isAfter(to));
     }
 
     public List<LastHolidayDTO> findCommonHolidays(int year, String countryA, String countryB) {
-        validateCountryCode(countryA);
-        validateCountryCode(countryB);
-        List<Holiday> listA = apiClient.fetchHolidays(year, countryA);
-        List<Holiday> listB = apiClient.fetchHolidays(year, countryB);
+        return findCommonHolidays(year, List.of(countryA, countryB));
+    }
 
-        Map<LocalDate, String> mapA = listA.stream()
-                .collect(Collectors.toMap(Holiday::getDate, Holiday::getLocalName, (name1, name2) -> name1));
+    /**
+     * Dates that are holidays in every given country, in date order, named with
+     * the local name used by the first country.
+     */
+    public List<LastHolidayDTO> findCommonHolidays(int year, List<String> countries) {
+        return findCommonHolidays(year, countries, new DegradedKeys());
+    }
 
-        return listB.stream()
-                .filter(h -> mapA.containsKey(h.getDate()))
-                .map(h -> new LastHolidayDTO(h.getDate(), mapA.get(h.getDate())))
-                .distinct()
-                .collect(Collectors.toList());
+    public List<LastHolidayDTO> findCommonHolidays(int year, List<String> countries, DegradedKeys degraded) {
+        HolidayCalculations.validateYear(year);
+        validateCountryCodes(countries);
+        return commonRegistry.get(year, countries, loadCalendars(year, countries, degraded.track(apiClient)));
+    }
+
+    /**
+     * Fetches every country's holidays for {@code year} in parallel and returns
+     * their common holidays and pairwise overlap.
+     */
+    public HolidayOverlapMatrix overlapMatrix(int year, List<String> countries) {
+        return overlapMatrix(year, countries, new DegradedKeys());
+    }
+
+    public HolidayOverlapMatrix overlapMatrix(int year, List<String> countries, DegradedKeys degraded) {
+        HolidayCalculations.validateYear(year);
+        validateCountryCodes(countries);
+        return new HolidayOverlapMatrix(year, countries, loadCalendars(year, countries, degraded.track(apiClient)));
+    }
+
+    /**
+     * Answers a batch of mixed queries. Every {@code (year, country)} list the
+     * batch needs is fetched once, in parallel, before any query is evaluated.
+     * A query that fails validation or whose data cannot be loaded gets an
+     * error result without affecting the rest of the batch. A result built
+     * from fallback data lists the keys it read from it.
+     */
+    public List<BatchResult> batch(List<BatchQuery> queries) {
+        LocalDate today = LocalDate.now();
+        Executor requestExecutor = new BoundedExecutor(executor, maxConcurrencyPerRequest);
+        Map<HolidayKey, CompletableFuture<List<Holiday>>> fetches = new LinkedHashMap<>();
+        Map<Integer, String> invalid = new HashMap<>();
+        for (int i = 0; i < queries.size(); i++) {
+            try {
+                for (HolidayKey key : requiredKeys(queries.get(i), today)) {
+                    fetches.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(
+                            () -> apiClient.fetchHolidays(k.year(), k.countryCode()), requestExecutor));
+                }
+            } catch (RuntimeException e) {
+                invalid.put(i, errorMessage(e));
+            }
+        }
+        log.debug("Batch of {} queries needs {} distinct holiday lists", queries.size(), fetches.size());
+
+        HolidayApiClient prefetched = (year, countryCode) -> {
+            CompletableFuture<List<Holiday>> fetch = fetches.get(new HolidayKey(year, countryCode));
+            return fetch != null ? fetch.join() : apiClient.fetchHolidays(year, countryCode);
+        };
+        List<BatchResult> results = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            BatchQuery query = queries.get(i);
+            if (invalid.containsKey(i)) {
+                results.add(BatchResult.failure(query, invalid.get(i)));
+                continue;
+            }
+            try {
+                DegradedKeys degraded = new DegradedKeys();
+                BatchResult result = BatchResult.success(query, evaluate(query, today, degraded.track(prefetched)));
+                result.setDegraded(degraded.isEmpty() ? null : degraded.keys());
+                results.add(result);
+            } catch (RuntimeException e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                results.add(BatchResult.failure(query, errorMessage(cause)));
+            }
+        }
+        return results;
+    }
+
+    private static String errorMessage(Throwable e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    /**
+     * Validates {@code query} and returns the holiday lists it reads up front.
+     */
+    private List<HolidayKey> requiredKeys(BatchQuery query, LocalDate today) {
+        if (query.getType() == null) {
+            throw new IllegalArgumentException("type is required");
+        }
+        switch (query.getType()) {
+            case LAST_THREE -> {
+                if (query.getCountry() == null) {
+                    throw new IllegalArgumentException("country is required");
+                }
+                validateCountryCode(query.getCountry());
+                LocalDate date = query.getDate() != null ? query.getDate() : today;
+                // lastThree also reads the previous year when fewer than three holidays precede the date
+                return List.of(new HolidayKey(date.getYear(), query.getCountry()),
+                        new HolidayKey(date.getYear() - 1, query.getCountry()));
+            }
+            default -> {
+                if (query.getYear() == null) {
+                    throw new IllegalArgumentException("year is required");
+                }
+                HolidayCalculations.validateYear(query.getYear());
+                if (query.getCountries() == null || query.getCountries().isEmpty()) {
+                    throw new IllegalArgumentException("countries is required");
+                }
+                validateCountryCodes(query.getCountries());
+                return query.getCountries().stream()
+                        .map(code -> new HolidayKey(query.getYear(), code))
+                        .toList();
+            }
+        }
+    }
+
+    private Object evaluate(BatchQuery query, LocalDate today, HolidayApiClient source) {
+        return switch (query.getType()) {
+            case LAST_THREE -> lastThree(query.getCountry(),
+                    query.getDate() != null ? query.getDate() : today, source);
+            case WEEKDAY_COUNT -> weekdayCounts(query.getCountries(),
+                    calendars(query.getYear(), query.getCountries(), source));
+            case COMMON -> commonRegistry.get(query.getYear(), query.getCountries(),
+                    calendars(query.getYear(), query.getCountries(), source));
+        };
+    }
+
+    private List<HolidayCalendar> calendars(int year, List<String> countries, HolidayApiClient source) {
+        return countries.stream()
+                .map(code -> calendar(year, code, source))
+                .toList();
+    }
+
+    /**
+     * Loads the calendars of {@code countries} in parallel, bounded per request.
+     */
+    private List<HolidayCalendar> loadCalendars(int year, List<String> countries, HolidayApiClient source) {
+        Executor requestExecutor = new BoundedExecutor(executor, maxConcurrencyPerRequest);
+        List<CompletableFuture<HolidayCalendar>> futures = countries.stream()
+                .map(code -> CompletableFuture.supplyAsync(() -> calendar(year, code, source), requestExecutor))
+                .toList();
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    private HolidayCalendar calendar(int year, String countryCode, HolidayApiClient source) {
+        return calendarRegistry.get(year, countryCode, source.fetchHolidays(year, countryCode));
+    }
+
+    private void validateYearRange(int fromYear, int toYear) {
+        HolidayCalculations.validateYear(fromYear);
+        HolidayCalculations.validateYear(toYear);
+        if (fromYear > toYear || (long) toYear - fromYear + 1 > maxYears) {
+            throw new InvalidRangeException("Year range must be ascending and span at most "
+                    + maxYears + " years: " + fromYear + ".." + toYear);
+        }
     }
 
     private void validateCountryCode(String code) {
@@ -88,22 +351,4 @@ public class HolidayService {
         codes.forEach(this::validateCountryCode);
     }
 
-    /**
-     * Fetches holidays up to today. If fewer than 3 have occurred this year,
-     * also fetches last year's holidays.
-     */
-    private List<Holiday> fetchHolidaysUpToToday(String countryCode) {
-        LocalDate today = LocalDate.now();
-        int year = today.getYear();
-        List<Holiday> all = new ArrayList<>(apiClient.fetchHolidays(year, countryCode));
-        long passed = all.stream()
-                .filter(h -> !h.getDate().isAfter(today))
-                .count();
-        if (passed < LAST_HOLIDAYS_LIMIT) {
-            all.addAll(apiClient.fetchHolidays(year - 1, countryCode));
-        }
-        return all.stream()
-                .filter(h -> !h.getDate().isAfter(today))
-                .collect(Collectors.toList());
-    }
 }
@@ -0,0 +1,190 @@
+package com.bingyu.holidays.service;
+
+import com.bingyu.holidays.client.ReactiveHolidayApiClient;
+import com.bingyu.holidays.config.CountryCodeLoader;
+import com.bingyu.holidays.dto.CountryHolidayCount;
+import com.bingyu.holidays.dto.LastHolidayDTO;
+import com.bingyu.holidays.dto.YearlyHolidayCount;
+import com.bingyu.holidays.exception.InvalidCountryCodeException;
+import com.bingyu.holidays.exception.InvalidRangeException;
+import com.bingyu.holidays.index.CommonHolidayRegistry;
+import com.bingyu.holidays.index.HolidayCalendarRegistry;
+import com.bingyu.holidays.index.HolidayIndex;
+import com.bingyu.holidays.index.HolidayIndexRegistry;
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.model.HolidayKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Non-blocking variant of {@link HolidayService}. Upstream fetches are
+ * composed as {@link Mono}s, so no thread waits on the network and the
+ * number of concurrent fetches is bounded only by {@code maxConcurrency}.
+ */
+@Service
+@Slf4j
+public class ReactiveHolidayService {
+
+    private final ReactiveHolidayApiClient apiClient;
+    private final HolidayIndexRegistry indexRegistry;
+    private final HolidayCalendarRegistry calendarRegistry;
+    private final CommonHolidayRegistry commonRegistry;
+    private final CountryCodeLoader codeLoader;
+    private final int maxConcurrency;
+    private final int maxYears;
+    private final Clock clock;
+
+    @Autowired
+    public ReactiveHolidayService(ReactiveHolidayApiClient apiClient,
+                                  HolidayIndexRegistry indexRegistry,
+                                  HolidayCalendarRegistry calendarRegistry,
+                                  CommonHolidayRegistry commonRegistry,
+                                  CountryCodeLoader codeLoader,
+                                  @Value("${holidays.reactive.max-concurrency}") int maxConcurrency,
+                                  @Value("${holidays.range.max-years}") int maxYears) {
+        this(apiClient, indexRegistry, calendarRegistry, commonRegistry, codeLoader, maxConcurrency, maxYears,
+                Clock.systemDefaultZone());
+    }
+
+    ReactiveHolidayService(ReactiveHolidayApiClient apiClient, HolidayIndexRegistry indexRegistry,
+                           HolidayCalendarRegistry calendarRegistry, CommonHolidayRegistry commonRegistry,
+                           CountryCodeLoader codeLoader, int maxConcurrency, int maxYears, Clock clock) {
+        this.apiClient = apiClient;
+        this.indexRegistry = indexRegistry;
+        this.calendarRegistry = calendarRegistry;
+        this.commonRegistry = commonRegistry;
+        this.codeLoader = codeLoader;
+        this.maxConcurrency = maxConcurrency;
+        this.maxYears = maxYears;
+        this.clock = clock;
+    }
+
+    public Mono<List<LastHolidayDTO>> getLastThreeHolidays(String countryCode) {
+        return getLastThreeHolidays(countryCode, LocalDate.now(clock), new DegradedKeys());
+    }
+
+    /**
+     * Returns the three most recent holidays on or before {@code today},
+     * newest first, recording in {@code degraded} the lists read that came
+     * from fallback data. The previous year is only fetched if {@code today}'s
+     * year has fewer than three. Answers come from the same
+     * {@link HolidayIndexRegistry} indexes as {@link HolidayService}.
+     */
+    public Mono<List<LastHolidayDTO>> getLastThreeHolidays(String countryCode, LocalDate today,
+                                                           DegradedKeys degraded) {
+        validateCountryCode(countryCode);
+        int year = today.getYear();
+        return fetch(year, countryCode, degraded)
+                .flatMap(thisYear -> {
+                    HolidayIndex index = indexRegistry.get(countryCode, year, year, y -> thisYear);
+                    if (index.endOnOrBefore(today) >= HolidayCalculations.LAST_HOLIDAYS_LIMIT) {
+                        return Mono.just(index);
+                    }
+                    return fetch(year - 1, countryCode, degraded)
+                            .map(lastYear -> indexRegistry.get(countryCode, year - 1, year,
+                                    y -> y == year ? thisYear : lastYear));
+                })
+                .map(index -> HolidayCalculations.lastHolidays(index, today));
+    }
+
+    /**
+     * Emits each country's weekday count as soon as its fetch completes, so the
+     * first element arrives after the fastest upstream call, not the slowest.
+     */
+    public Flux<CountryHolidayCount> streamWeekdayHolidays(int year, List<String> countries) {
+        return streamWeekdayHolidays(year, countries, new DegradedKeys());
+    }
+
+    public Flux<CountryHolidayCount> streamWeekdayHolidays(int year, List<String> countries, DegradedKeys degraded) {
+        HolidayCalculations.validateYear(year);
+        validateCountryCodes(countries);
+        return Flux.fromIterable(countries)
+                .flatMap(code -> fetch(year, code, degraded)
+                        .map(holidays -> new CountryHolidayCount(code, HolidayCalculations.countWeekdays(holidays))),
+                        maxConcurrency);
+    }
+
+    /**
+     * Weekday counts for every {@code (year, country)} in {@code fromYear..toYear},
+     * emitted in completion order.
+     */
+    public Flux<YearlyHolidayCount> streamWeekdayHolidays(int fromYear, int toYear, List<String> countries) {
+        return streamWeekdayHolidays(fromYear, toYear, countries, new DegradedKeys());
+    }
+
+    public Flux<YearlyHolidayCount> streamWeekdayHolidays(int fromYear, int toYear, List<String> countries,
+                                                          DegradedKeys degraded) {
+        validateYearRange(fromYear, toYear);
+        validateCountryCodes(countries);
+        return Flux.range(fromYear, toYear - fromYear + 1)
+                .flatMap(year -> Flux.fromIterable(countries)
+                        .map(code -> new HolidayKey(year, code)))
+                .flatMap(key -> fetch(key.year(), key.countryCode(), degraded)
+                        .map(holidays -> new YearlyHolidayCount(key.year(), key.countryCode(),
+                                HolidayCalculations.countWeekdays(holidays))),
+                        maxConcurrency);
+    }
+
+    public Mono<List<CountryHolidayCount>> countWeekdayHolidays(int year, List<String> countries) {
+        return countWeekdayHolidays(year, countries, new DegradedKeys());
+    }
+
+    public Mono<List<CountryHolidayCount>> countWeekdayHolidays(int year, List<String> countries,
+                                                                DegradedKeys degraded) {
+        return streamWeekdayHolidays(year, countries, degraded)
+                .collectSortedList(Comparator.comparingInt(CountryHolidayCount::getWeekdayHolidayCount).reversed());
+    }
+
+    public Mono<List<LastHolidayDTO>> findCommonHolidays(int year, String countryA, String countryB) {
+        return findCommonHolidays(year, List.of(countryA, countryB), new DegradedKeys());
+    }
+
+    /**
+     * Dates that are holidays in every given country, in date order, named with
+     * the local name used by the first country. Results are shared with
+     * {@link HolidayService} through the calendar and common-holiday registries.
+     */
+    public Mono<List<LastHolidayDTO>> findCommonHolidays(int year, List<String> countries, DegradedKeys degraded) {
+        HolidayCalculations.validateYear(year);
+        validateCountryCodes(countries);
+        return Flux.fromIterable(countries)
+                .flatMapSequential(code -> fetch(year, code, degraded)
+                        .map(holidays -> calendarRegistry.get(year, code, holidays)), maxConcurrency)
+                .collectList()
+                .map(calendars -> commonRegistry.get(year, countries, calendars));
+    }
+
+    private Mono<List<Holiday>> fetch(int year, String countryCode, DegradedKeys degraded) {
+        return apiClient.fetchHolidays(year, countryCode)
+                .map(holidays -> degraded.record(year, countryCode, holidays));
+    }
+
+    private void validateYearRange(int fromYear, int toYear) {
+        HolidayCalculations.validateYear(fromYear);
+        HolidayCalculations.validateYear(toYear);
+        if (fromYear > toYear || (long) toYear - fromYear + 1 > maxYears) {
+            throw new InvalidRangeException("Year range must be ascending and span at most "
+                    + maxYears + " years: " + fromYear + ".." + toYear);
+        }
+    }
+
+    private void validateCountryCode(String code) {
+        if (!codeLoader.isValid(code)) {
+            log.warn("Invalid country code attempted: {}", code);
+            throw new InvalidCountryCodeException("Invalid country code: " + code);
+        }
+    }
+
+    private void validateCountryCodes(List<String> codes) {
+        codes.forEach(this::validateCountryCode);
+    }
+}
@@ -0,0 +1,149 @@
+package com.bingyu.holidays.snapshot;
+
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.model.HolidayKey;
+import com.bingyu.holidays.model.HolidayNames;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only view of a holiday snapshot file written by {@link HolidaySnapshotWriter}.
+ *
+ * <p>The file is memory-mapped; opening it only decodes the name table and the
+ * (year, country) directory. Holiday records stay in the mapping and are turned
+ * into {@link Holiday} lists the first time a key is requested, after which the
+ * same list instance is returned so identity-keyed indexes downstream stay valid.
+ *
+ * <p>Layout (big-endian):
+ * <pre>
+ * int magic, int version
+ * int nameCount, nameCount x (short length, UTF-8 bytes)
+ * int entryCount, entryCount x (int year, short length, ASCII country, int firstRecord, int recordCount)
+ * int recordCount, recordCount x (int epochDay, int nameIndex, int localNameIndex)
+ * </pre>
+ * Records of one entry are sorted by date. A name index of {@link #NO_NAME}
+ * stands for a {@code null} name.
+ */
+public final class HolidaySnapshot {
+    static final int MAGIC = 0x48534E50; // "HSNP"
+    static final int VERSION = 2;
+    static final int NO_NAME = -1;
+    static final int RECORD_BYTES = 12;
+
+    private static final HolidaySnapshot EMPTY = new HolidaySnapshot(null, new String[0], Map.of(), 0);
+
+    private final ByteBuffer records;
+    private final String[] names;
+    private final Map<HolidayKey, int[]> directory;
+    private final int recordCount;
+    private final Map<HolidayKey, List<Holiday>> materialized = new ConcurrentHashMap<>();
+
+    private HolidaySnapshot(ByteBuffer records, String[] names, Map<HolidayKey, int[]> directory, int recordCount) {
+        this.records = records;
+        this.names = names;
+        this.directory = directory;
+        this.recordCount = recordCount;
+    }
+
+    public static HolidaySnapshot empty() {
+        return EMPTY;
+    }
+
+    public static HolidaySnapshot open(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            return parse(buffer);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt holiday snapshot " + file, e);
+        }
+    }
+
+    private static HolidaySnapshot parse(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a holiday snapshot");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported holiday snapshot version " + version);
+        }
+
+        String[] names = new String[buffer.getInt()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = HolidayNames.intern(readString(buffer, buffer.getShort() & 0xFFFF, StandardCharsets.UTF_8));
+        }
+
+        int entryCount = buffer.getInt();
+        Map<HolidayKey, int[]> directory = new HashMap<>(entryCount * 2);
+        for (int i = 0; i < entryCount; i++) {
+            int year = buffer.getInt();
+            String country = readString(buffer, buffer.getShort() & 0xFFFF, StandardCharsets.US_ASCII);
+            directory.put(new HolidayKey(year, country), new int[]{buffer.getInt(), buffer.getInt()});
+        }
+
+        int recordCount = buffer.getInt();
+        ByteBuffer records = buffer.slice(buffer.position(), recordCount * RECORD_BYTES);
+        return new HolidaySnapshot(records, names, directory, recordCount);
+    }
+
+    private static String readString(ByteBuffer buffer, int length, Charset charset) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    /**
+     * Returns the holidays for a key, or {@code null} if the snapshot does not
+     * contain it. An empty list means the key is known to have no holidays.
+     */
+    public List<Holiday> get(int year, String countryCode) {
+        HolidayKey key = new HolidayKey(year, countryCode);
+        int[] range = directory.get(key);
+        if (range == null) {
+            return null;
+        }
+        return materialized.computeIfAbsent(key, k -> decode(range[0], range[1]));
+    }
+
+    private List<Holiday> decode(int first, int count) {
+        List<Holiday> holidays = new ArrayList<>(count);
+        for (int i = first; i < first + count; i++) {
+            int offset = i * RECORD_BYTES;
+            holidays.add(new Holiday(LocalDate.ofEpochDay(records.getInt(offset)),
+                    name(records.getInt(offset + 4)), name(records.getInt(offset + 8))));
+        }
+        return Collections.unmodifiableList(holidays);
+    }
+
+    private String name(int index) {
+        return index == NO_NAME ? null : names[index];
+    }
+
+    public Set<HolidayKey> keys() {
+        return Collections.unmodifiableSet(directory.keySet());
+    }
+
+    public int size() {
+        return directory.size();
+    }
+
+    public int recordCount() {
+        return recordCount;
+    }
+}
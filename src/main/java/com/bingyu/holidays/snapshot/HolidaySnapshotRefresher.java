@@ -0,0 +1,118 @@
+package com.bingyu.holidays.snapshot;
+
+import com.bingyu.holidays.cache.LastKnownGoodStore;
+import com.bingyu.holidays.client.HolidayApiClient;
+import com.bingyu.holidays.client.NagerDateApiClient;
+import com.bingyu.holidays.client.SnapshotHolidayApiClient;
+import com.bingyu.holidays.config.CountryCodeLoader;
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.model.HolidayKey;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically rebuilds the holiday snapshot from the upstream API and swaps
+ * it into {@link SnapshotHolidayApiClient}. Entries the upstream fails to
+ * return keep their previous contents, so an outage never empties the snapshot.
+ * Fetches bypass the holidays cache, and the job runs on its own scheduler
+ * thread because a rebuild takes about a minute.
+ */
+@Component
+@ConditionalOnProperty(name = "holidays.client.source", havingValue = "snapshot")
+@Slf4j
+public class HolidaySnapshotRefresher {
+
+    private final HolidayApiClient upstream;
+    private final SnapshotHolidayApiClient snapshotClient;
+    private final CountryCodeLoader codeLoader;
+    private final Path file;
+    private final int yearsBack;
+    private final int yearsAhead;
+    private final RateLimiter pacer;
+    private final Clock clock;
+
+    @Autowired
+    public HolidaySnapshotRefresher(NagerDateApiClient upstream,
+                                    SnapshotHolidayApiClient snapshotClient,
+                                    CountryCodeLoader codeLoader,
+                                    @Value("${holidays.snapshot.file}") Path file,
+                                    @Value("${holidays.snapshot.years-back}") int yearsBack,
+                                    @Value("${holidays.snapshot.years-ahead}") int yearsAhead,
+                                    @Value("${holidays.snapshot.permits-per-second}") int permitsPerSecond) {
+        this(upstream::refreshHolidays, snapshotClient, codeLoader, file, yearsBack, yearsAhead, permitsPerSecond,
+                Clock.systemDefaultZone());
+    }
+
+    HolidaySnapshotRefresher(HolidayApiClient upstream, SnapshotHolidayApiClient snapshotClient,
+                             CountryCodeLoader codeLoader, Path file, int yearsBack, int yearsAhead,
+                             int permitsPerSecond, Clock clock) {
+        this.upstream = upstream;
+        this.snapshotClient = snapshotClient;
+        this.codeLoader = codeLoader;
+        this.file = file;
+        this.yearsBack = yearsBack;
+        this.yearsAhead = yearsAhead;
+        this.clock = clock;
+        this.pacer = RateLimiter.of("holidaySnapshotRefresh", RateLimiterConfig.custom()
+                .limitForPeriod(permitsPerSecond)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ofMinutes(10))
+                .build());
+    }
+
+    @Scheduled(scheduler = "snapshotRefreshScheduler", initialDelayString = "${holidays.snapshot.initial-delay}",
+            fixedDelayString = "${holidays.snapshot.refresh-interval}")
+    public void refresh() {
+        long start = System.nanoTime();
+        HolidaySnapshot current = snapshotClient.getSnapshot();
+        Map<HolidayKey, List<Holiday>> holidays = new HashMap<>();
+        for (HolidayKey key : current.keys()) {
+            holidays.put(key, current.get(key.year(), key.countryCode()));
+        }
+
+        int updated = 0;
+        int currentYear = LocalDate.now(clock).getYear();
+        for (String country : codeLoader.getCodes()) {
+            for (int year = currentYear - yearsBack; year <= currentYear + yearsAhead; year++) {
+                RateLimiter.waitForPermission(pacer);
+                try {
+                    List<Holiday> fetched = upstream.fetchHolidays(year, country);
+                    if (fetched != null && !fetched.isEmpty() && !(fetched instanceof LastKnownGoodStore.StaleHolidays)) {
+                        holidays.put(new HolidayKey(year, country), fetched);
+                        updated++;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Snapshot refresh for {}-{} failed: {}", year, country, e.getMessage());
+                }
+            }
+        }
+
+        if (updated == 0) {
+            log.warn("Snapshot refresh fetched nothing from upstream; keeping the current snapshot");
+            return;
+        }
+        try {
+            HolidaySnapshotWriter.write(file, holidays);
+            snapshotClient.replace(HolidaySnapshot.open(file));
+            log.info("Refreshed holiday snapshot {}: {} entries, {} updated, in {} ms", file, holidays.size(),
+                    updated, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (IOException e) {
+            log.error("Failed to write holiday snapshot {}", file, e);
+        }
+    }
+}
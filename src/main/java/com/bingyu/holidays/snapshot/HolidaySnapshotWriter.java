@@ -0,0 +1,102 @@
+package com.bingyu.holidays.snapshot;
+
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.model.HolidayKey;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes holidays in the {@link HolidaySnapshot} format. Names shared across
+ * countries and years are stored once. The target is replaced atomically, so
+ * readers that still map the previous file are not affected.
+ */
+public final class HolidaySnapshotWriter {
+
+    private HolidaySnapshotWriter() {
+    }
+
+    public static void write(Path target, Map<HolidayKey, List<Holiday>> holidays) throws IOException {
+        List<HolidayKey> keys = new ArrayList<>(holidays.keySet());
+        keys.sort(Comparator.comparing(HolidayKey::countryCode).thenComparingInt(HolidayKey::year));
+
+        Map<String, Integer> nameIndex = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        Map<HolidayKey, List<Holiday>> sorted = new HashMap<>();
+        for (HolidayKey key : keys) {
+            List<Holiday> list = new ArrayList<>(holidays.get(key));
+            list.sort(Comparator.comparing(Holiday::getDate));
+            sorted.put(key, list);
+            for (Holiday holiday : list) {
+                intern(holiday.getName(), nameIndex, names);
+                intern(holiday.getLocalName(), nameIndex, names);
+            }
+        }
+
+        Path parent = target.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(HolidaySnapshot.MAGIC);
+            out.writeInt(HolidaySnapshot.VERSION);
+
+            out.writeInt(names.size());
+            for (String name : names) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+
+            out.writeInt(keys.size());
+            int first = 0;
+            for (HolidayKey key : keys) {
+                byte[] country = key.countryCode().getBytes(StandardCharsets.US_ASCII);
+                int count = sorted.get(key).size();
+                out.writeInt(key.year());
+                out.writeShort(country.length);
+                out.write(country);
+                out.writeInt(first);
+                out.writeInt(count);
+                first += count;
+            }
+
+            out.writeInt(first);
+            for (HolidayKey key : keys) {
+                for (Holiday holiday : sorted.get(key)) {
+                    out.writeInt((int) holiday.getDate().toEpochDay());
+                    out.writeInt(indexOf(holiday.getName(), nameIndex));
+                    out.writeInt(indexOf(holiday.getLocalName(), nameIndex));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void intern(String name, Map<String, Integer> index, List<String> names) {
+        if (name == null) {
+            return;
+        }
+        index.computeIfAbsent(name, n -> {
+            names.add(n);
+            return names.size() - 1;
+        });
+    }
+
+    /** A missing name is written as {@link HolidaySnapshot#NO_NAME}, so it reads back as {@code null}. */
+    private static int indexOf(String name, Map<String, Integer> index) {
+        return name == null ? HolidaySnapshot.NO_NAME : index.get(name);
+    }
+}
@@ -1,67 +1,72 @@
 package com.bingyu.holidays;
 
 import com.bingyu.holidays.config.CountryCodeLoader;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class CountryCodeLoaderTest {
     private WebClient.Builder mockBuilder;
-    private WebClient mockWebClient;
-    private WebClient.RequestHeadersUriSpec    mockUriSpec;
-    private WebClient.RequestHeadersSpec      mockReqSpec;
-    private WebClient.ResponseSpec            mockRespSpec;
+    private final AtomicReference<Mono<ClientResponse>> response = new AtomicReference<>();
+    private final AtomicReference<String> requestedPath = new AtomicReference<>();
     private CountryCodeLoader loader;
 
     @BeforeEach
     void setUp() {
-        mockBuilder   = mock(WebClient.Builder.class);
-        mockWebClient = mock(WebClient.class);
-        mockUriSpec   = mock(WebClient.RequestHeadersUriSpec.class);
-        mockReqSpec   = mock(WebClient.RequestHeadersSpec.class);
-        mockRespSpec  = mock(WebClient.ResponseSpec.class);
+        mockBuilder = mock(WebClient.Builder.class);
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requestedPath.set(request.url().getPath());
+                    return response.get();
+                })
+                .build();
 
-        loader = new CountryCodeLoader(mockBuilder);
+        loader = new CountryCodeLoader(mockBuilder, new ObjectMapper());
         ReflectionTestUtils.setField(loader, "baseUrl", "http://api.test");
         ReflectionTestUtils.setField(loader, "countriesPath", "/available");
+        ReflectionTestUtils.setField(loader, "snapshot", new ClassPathResource("country-codes.json"));
 
         when(mockBuilder.baseUrl(eq("http://api.test"))).thenReturn(mockBuilder);
-        when(mockBuilder.build()).thenReturn(mockWebClient);
-        when(mockWebClient.get()).thenReturn(mockUriSpec);
-        when(mockUriSpec.uri(eq("/available"))).thenReturn(mockReqSpec);
-        when(mockReqSpec.retrieve()).thenReturn(mockRespSpec);
+        when(mockBuilder.build()).thenReturn(webClient);
+    }
+
+    private void respondWith(String json) {
+        response.set(Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(json)
+                .build()));
     }
 
     @Test
     void testInitLoadsCodesAndIsValid() {
-        CountryCodeLoader.AvailableCountry c1 = new CountryCodeLoader.AvailableCountry();
-        c1.setKey("US");
-        CountryCodeLoader.AvailableCountry c2 = new CountryCodeLoader.AvailableCountry();
-        c2.setKey("DE");
-        @SuppressWarnings("unchecked")
-        Flux<CountryCodeLoader.AvailableCountry> flux = mock(Flux.class);
-        when(mockRespSpec.bodyToFlux(CountryCodeLoader.AvailableCountry.class)).thenReturn(flux);
-        Mono<List<CountryCodeLoader.AvailableCountry>> mono = Mono.just(List.of(c1, c2));
-        when(flux.collectList()).thenReturn(mono);
+        respondWith("[{\"countryCode\":\"US\"},{\"countryCode\":\"DE\"}]");
 
         loader.init();
+        loader.refresh();
 
+        assertEquals("/available", requestedPath.get());
         assertTrue(loader.isValid("US"), "should contain US");
         assertTrue(loader.isValid("DE"), "should contain DE");
         assertFalse(loader.isValid("FR"), "shouldn't contain FR");
@@ -69,22 +74,23 @@ public class CountryCodeLoaderTest {
 
     @Test
     void testInitWithEmptyList() {
-        @SuppressWarnings("unchecked")
-        Flux<CountryCodeLoader.AvailableCountry> flux = mock(Flux.class);
-        when(mockRespSpec.bodyToFlux(CountryCodeLoader.AvailableCountry.class)).thenReturn(flux);
-        when(flux.collectList()).thenReturn(Mono.just(List.of()));
+        respondWith("[]");
 
         loader.init();
+        loader.refresh();
         assertFalse(loader.isValid("ANY"), " should return false");
+        assertTrue(loader.isValid("FR"), "empty refresh should keep the bundled codes");
     }
 
     @Test
-    void testInitThrowsOnError() {
+    void testRefreshErrorKeepsBundledCodes() {
+        response.set(Mono.error(new RuntimeException("network error")));
 
-        when(mockRespSpec.bodyToFlux(CountryCodeLoader.AvailableCountry.class))
-                .thenThrow(new RuntimeException("network error"));
+        loader.init();
+        assertTrue(loader.isValid("FR"), "bundled snapshot should contain FR");
+        verifyNoInteractions(mockBuilder);
 
-        RuntimeException ex = assertThrows(RuntimeException.class, () -> loader.init());
-        assertEquals("network error", ex.getMessage());
+        assertDoesNotThrow(() -> loader.refresh());
+        assertTrue(loader.isValid("FR"), "failed refresh should keep the bundled codes");
     }
 }
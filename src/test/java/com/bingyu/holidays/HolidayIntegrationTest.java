@@ -15,11 +15,15 @@ import org.junit.jupiter.api.DisplayName;
 import org.springframework.http.*;
 import java.time.LocalDate;
 import java.util.List;
+import org.springframework.test.context.ActiveProfiles;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
+@ActiveProfiles("test")
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
         properties = {"spring.cache.type=none"}
 )
@@ -56,7 +60,7 @@ public class HolidayIntegrationTest {
                 new LastHolidayDTO(LocalDate.of(2025, 6, 10), "Eid al-Adha"),
                 new LastHolidayDTO(LocalDate.of(2025, 5,  1), "Labor Day")
         );
-        given(service.getLastThreeHolidays("US")).willReturn(mockList);
+        given(service.getLastThreeHolidays(eq("US"), any(), any())).willReturn(mockList);
 
         ResponseEntity<LastHolidayDTO[]> response = restTemplate
                 .getForEntity(baseUrl() + "/last-three?country=US", LastHolidayDTO[].class);
@@ -81,7 +85,7 @@ public class HolidayIntegrationTest {
                 new CountryHolidayCount("DE", 12),
                 new CountryHolidayCount("US", 10)
         );
-        given(service.countWeekdayHolidays(2025, List.of("US", "DE"))).willReturn(mockCounts);
+        given(service.countWeekdayHolidays(eq(2025), eq(List.of("US", "DE")), any())).willReturn(mockCounts);
 
         ResponseEntity<CountryHolidayCount[]> response = restTemplate
                 .getForEntity(baseUrl() + "/weekday-count?year=2025&countries=US,DE",
@@ -104,7 +108,7 @@ public class HolidayIntegrationTest {
         List<LastHolidayDTO> commons = List.of(
                 new LastHolidayDTO(LocalDate.of(2025, 12, 25), "Christmas Day")
         );
-        given(service.findCommonHolidays(2025, "US", "DE")).willReturn(commons);
+        given(service.findCommonHolidays(eq(2025), eq(List.of("US", "DE")), any())).willReturn(commons);
 
         ResponseEntity<LastHolidayDTO[]> response = restTemplate
                 .getForEntity(baseUrl()
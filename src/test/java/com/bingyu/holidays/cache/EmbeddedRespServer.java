@@ -0,0 +1,205 @@
+package com.bingyu.holidays.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process stand-in for a Redis server supporting GET, SET (NX honoured, expiry ignored),
+ * DEL, PUBLISH and SUBSCRIBE over RESP2, enough for the Lettuce client behind
+ * {@link RedisSharedCacheTier} in tests. HELLO is refused, so clients fall back
+ * to RESP2, and connection set-up commands such as CLIENT and PING just succeed.
+ */
+class EmbeddedRespServer implements Closeable {
+
+    private final ServerSocket server;
+    private final Map<String, byte[]> data = new ConcurrentHashMap<>();
+    private final Map<String, List<OutputStream>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+    EmbeddedRespServer() throws IOException {
+        this(0);
+    }
+
+    EmbeddedRespServer(int port) throws IOException {
+        server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "resp-stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return server.getLocalPort();
+    }
+
+    /** Closes every client connection while the server keeps accepting new ones. */
+    void dropConnections() throws IOException {
+        for (Socket socket : connections) {
+            socket.close();
+        }
+        connections.clear();
+    }
+
+    int subscriberCount(String channel) {
+        return subscribers.getOrDefault(channel, List.of()).size();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.add(socket);
+                Thread handler = new Thread(() -> serve(socket), "resp-stand-in-connection");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        OutputStream out = null;
+        try (socket) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            out = new BufferedOutputStream(socket.getOutputStream());
+            while (true) {
+                List<byte[]> command = readCommand(in);
+                String name = string(command.get(0)).toUpperCase();
+                synchronized (out) {
+                    switch (name) {
+                        case "GET" -> bulk(out, data.get(string(command.get(1))));
+                        case "SET" -> {
+                            boolean ifAbsent = command.stream().skip(3).anyMatch(arg -> string(arg).equalsIgnoreCase("NX"));
+                            if (ifAbsent && data.putIfAbsent(string(command.get(1)), command.get(2)) != null) {
+                                bulk(out, null);
+                            } else {
+                                data.put(string(command.get(1)), command.get(2));
+                                out.write(bytes("+OK\r\n"));
+                            }
+                        }
+                        case "CLIENT", "SELECT" -> out.write(bytes("+OK\r\n"));
+                        case "PING" -> out.write(bytes("+PONG\r\n"));
+                        case "DEL" -> integer(out, data.remove(string(command.get(1))) == null ? 0 : 1);
+                        case "PUBLISH" -> integer(out, publish(string(command.get(1)), command.get(2)));
+                        case "SUBSCRIBE" -> {
+                            for (int i = 1; i < command.size(); i++) {
+                                String channel = string(command.get(i));
+                                subscribers.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(out);
+                                out.write(bytes("*3\r\n"));
+                                bulk(out, bytes("subscribe"));
+                                bulk(out, bytes(channel));
+                                integer(out, i);
+                            }
+                        }
+                        default -> out.write(bytes("-ERR unknown command '" + name + "'\r\n"));
+                    }
+                    out.flush();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            OutputStream closed = out;
+            subscribers.values().forEach(list -> list.remove(closed));
+        }
+    }
+
+    /** Reads one command, sent by clients as an array of bulk strings. */
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        expect(in, '*');
+        int count = Integer.parseInt(readLine(in));
+        List<byte[]> command = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            expect(in, '$');
+            byte[] value = in.readNBytes(Integer.parseInt(readLine(in)));
+            readLine(in);
+            command.add(value);
+        }
+        return command;
+    }
+
+    private static void expect(InputStream in, char type) throws IOException {
+        int read = in.read();
+        if (read < 0) {
+            throw new EOFException();
+        }
+        if (read != type) {
+            throw new IOException("Expected '" + type + "' but got '" + (char) read + "'");
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int read;
+        while ((read = in.read()) != '\r') {
+            if (read < 0) {
+                throw new EOFException();
+            }
+            line.write(read);
+        }
+        in.read();
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    private int publish(String channel, byte[] message) {
+        List<OutputStream> outs = subscribers.getOrDefault(channel, List.of());
+        for (OutputStream out : outs) {
+            synchronized (out) {
+                try {
+                    out.write(bytes("*3\r\n"));
+                    bulk(out, bytes("message"));
+                    bulk(out, bytes(channel));
+                    bulk(out, message);
+                    out.flush();
+                } catch (IOException ignored) {
+                    // subscriber went away
+                }
+            }
+        }
+        return outs.size();
+    }
+
+    private static void bulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write(bytes("$-1\r\n"));
+            return;
+        }
+        out.write(bytes("$" + value.length + "\r\n"));
+        out.write(value);
+        out.write(bytes("\r\n"));
+    }
+
+    private static void integer(OutputStream out, long value) throws IOException {
+        out.write(bytes(":" + value + "\r\n"));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (Socket socket : connections) {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.bingyu.holidays.cache;
+
+import com.bingyu.holidays.model.Holiday;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HolidayCodecTest {
+
+    @Test
+    void roundTrip_keepsDatesNamesAndNulls() {
+        List<Holiday> holidays = List.of(
+                new Holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "Neujahr"),
+                new Holiday(LocalDate.of(2025, 12, 25), "Christmas Day", "Christmas Day"),
+                new Holiday(LocalDate.of(2025, 5, 1), "Labour Day", null),
+                new Holiday(LocalDate.of(1969, 7, 20), "Día de la Luna", "Mondlandung"));
+
+        assertEquals(holidays, HolidayCodec.decode(HolidayCodec.encode(holidays)));
+    }
+
+    @Test
+    void encoding_isSmallerThanJson() {
+        Holiday[] year = new Holiday[12];
+        for (int month = 1; month <= 12; month++) {
+            year[month - 1] = new Holiday(LocalDate.of(2025, month, 1), "Holiday " + month, "Holiday " + month);
+        }
+
+        byte[] encoded = HolidayCodec.encode(Arrays.asList(year));
+
+        // Each entry costs one date byte, a name and a one-byte "same as name" marker.
+        assertTrue(encoded.length < 12 * 14, "encoded size " + encoded.length);
+        assertEquals(Arrays.asList(year), HolidayCodec.decode(encoded));
+    }
+
+    @Test
+    void emptyList_roundTrips() {
+        assertEquals(List.of(), HolidayCodec.decode(HolidayCodec.encode(List.of())));
+    }
+
+    @Test
+    void unknownVersion_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> HolidayCodec.decode(new byte[]{9, 0}));
+    }
+}
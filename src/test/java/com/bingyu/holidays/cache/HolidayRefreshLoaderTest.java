@@ -0,0 +1,215 @@
+package com.bingyu.holidays.cache;
+
+import com.bingyu.holidays.model.Holiday;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class HolidayRefreshLoaderTest {
+
+    private final Clock clock = Clock.fixed(
+            LocalDate.of(2025, 6, 1).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final AtomicReference<List<Holiday>> upstreamResult = new AtomicReference<>(List.of());
+    private final List<Runnable> pendingRefreshes = new ArrayList<>();
+    private final List<Object> refreshedKeys = new ArrayList<>();
+
+    private final List<Holiday> cached = List.of(new Holiday(LocalDate.of(2025, 1, 1), "Old", "Old"));
+    private final List<Holiday> fresh = List.of(new Holiday(LocalDate.of(2025, 1, 1), "New", "New"));
+
+    private LoadingCache<Object, Object> cache() {
+        return cache(null);
+    }
+
+    private LoadingCache<Object, Object> cache(SharedCacheTier sharedTier) {
+        HolidayRefreshLoader loader = new HolidayRefreshLoader((year, code) -> {
+            upstreamCalls.incrementAndGet();
+            return upstreamResult.get();
+        }, sharedTier, Duration.ofMinutes(10), clock);
+        loader.setRefreshListener((key, value) -> refreshedKeys.add(key));
+        return Caffeine.newBuilder()
+                .refreshAfterWrite(Duration.ofMinutes(10))
+                .ticker(nanos::get)
+                .executor(pendingRefreshes::add)
+                .build(loader);
+    }
+
+    private void elapse(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private void runPendingRefreshes() {
+        List<Runnable> tasks = new ArrayList<>(pendingRefreshes);
+        pendingRefreshes.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    void missIsLeftToTheCaller() {
+        assertNull(cache().get("2025-US"));
+        assertEquals(0, upstreamCalls.get());
+    }
+
+    @Test
+    void staleCurrentYear_servedWhileOneRefreshRuns() {
+        LoadingCache<Object, Object> cache = cache();
+        cache.put("2025-US", cached);
+        upstreamResult.set(fresh);
+        elapse(Duration.ofMinutes(11));
+
+        assertSame(cached, cache.get("2025-US"));
+        assertSame(cached, cache.get("2025-US"));
+        assertEquals(0, upstreamCalls.get());
+
+        runPendingRefreshes();
+        assertSame(fresh, cache.get("2025-US"));
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(List.of("2025-US"), refreshedKeys);
+    }
+
+    @Test
+    void pastYear_neverCallsUpstream() {
+        LoadingCache<Object, Object> cache = cache();
+        cache.put("2024-US", cached);
+        elapse(Duration.ofDays(30));
+
+        assertSame(cached, cache.get("2024-US"));
+        runPendingRefreshes();
+        assertSame(cached, cache.get("2024-US"));
+        assertEquals(0, upstreamCalls.get());
+    }
+
+    @Test
+    void failedOrUnchangedRefresh_keepsCachedInstance() {
+        LoadingCache<Object, Object> cache = cache();
+        cache.put("2026-US", cached);
+        elapse(Duration.ofMinutes(11));
+        cache.get("2026-US");
+        runPendingRefreshes();
+        assertSame(cached, cache.get("2026-US"));
+
+        upstreamResult.set(List.copyOf(cached));
+        elapse(Duration.ofMinutes(11));
+        cache.get("2026-US");
+        runPendingRefreshes();
+        assertSame(cached, cache.get("2026-US"));
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(List.of(), refreshedKeys);
+    }
+
+    @Test
+    void refreshClaimedByAnotherReplica_adoptsSharedEntryWithoutUpstreamCall() {
+        FakeSharedTier shared = new FakeSharedTier(false);
+        LoadingCache<Object, Object> cache = cache(shared);
+        cache.put("2025-US", cached);
+        shared.entries.put("2025-US", fresh);
+        upstreamResult.set(fresh);
+        elapse(Duration.ofMinutes(11));
+
+        cache.get("2025-US");
+        runPendingRefreshes();
+
+        assertSame(fresh, cache.get("2025-US"));
+        assertEquals(0, upstreamCalls.get());
+        assertEquals(List.of(), refreshedKeys, "an adopted entry is already in the shared tier");
+    }
+
+    @Test
+    void refreshClaimedByAnotherReplica_keepsCachedListUntilSharedEntryChanges() {
+        FakeSharedTier shared = new FakeSharedTier(false);
+        LoadingCache<Object, Object> cache = cache(shared);
+        cache.put("2025-US", cached);
+        shared.entries.put("2025-US", cached);
+        elapse(Duration.ofMinutes(11));
+
+        cache.get("2025-US");
+        runPendingRefreshes();
+
+        assertSame(cached, cache.get("2025-US"));
+        assertEquals(0, upstreamCalls.get());
+    }
+
+    @Test
+    void claimedRefresh_callsUpstreamAndReportsChange() {
+        FakeSharedTier shared = new FakeSharedTier(true);
+        LoadingCache<Object, Object> cache = cache(shared);
+        cache.put("2025-US", cached);
+        upstreamResult.set(fresh);
+        elapse(Duration.ofMinutes(11));
+
+        cache.get("2025-US");
+        runPendingRefreshes();
+
+        assertSame(fresh, cache.get("2025-US"));
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(List.of("2025-US"), refreshedKeys);
+        assertEquals(List.of("2025-US"), shared.claims);
+    }
+
+    private static class FakeSharedTier implements SharedCacheTier {
+        private final boolean grantClaims;
+        private final Map<Object, Object> entries = new ConcurrentHashMap<>();
+        private final List<Object> claims = new ArrayList<>();
+
+        FakeSharedTier(boolean grantClaims) {
+            this.grantClaims = grantClaims;
+        }
+
+        @Override
+        public boolean claimRefresh(Object key, Duration window) {
+            claims.add(key);
+            return grantClaims;
+        }
+
+        @Override
+        public Object read(Object key) {
+            return entries.get(key);
+        }
+
+        @Override
+        public String getCacheName() {
+            return "holidays";
+        }
+
+        @Override
+        public void write(Object key, Object value) {
+            entries.put(key, value);
+        }
+
+        @Override
+        public void delete(Object key) {
+            entries.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            entries.clear();
+        }
+
+        @Override
+        public void onInvalidation(Consumer<Object> listener) {
+        }
+
+        @Override
+        public void onResync(Runnable listener) {
+        }
+    }
+}
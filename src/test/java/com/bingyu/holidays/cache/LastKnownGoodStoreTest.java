@@ -0,0 +1,148 @@
+package com.bingyu.holidays.cache;
+
+import com.bingyu.holidays.model.Holiday;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LastKnownGoodStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<LastKnownGoodStore> opened = new ArrayList<>();
+
+    private final List<Holiday> holidays = List.of(
+            new Holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "Neujahr"),
+            new Holiday(LocalDate.of(2025, 12, 25), "Christmas Day", "Erster Weihnachtstag"));
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(LastKnownGoodStore::close);
+    }
+
+    private Path file() {
+        return dir.resolve("last-known-good.log");
+    }
+
+    private LastKnownGoodStore open() {
+        LastKnownGoodStore store = new LastKnownGoodStore(file());
+        opened.add(store);
+        return store;
+    }
+
+    private void reopen(LastKnownGoodStore store) {
+        store.close();
+        opened.remove(store);
+    }
+
+    @Test
+    void fallbackServesLastSuccessfulFetchAndMarksItDegraded() {
+        LastKnownGoodStore store = open();
+        store.put(2025, "DE", holidays);
+
+        List<Holiday> served = store.fallback(2025, "DE");
+
+        assertEquals(holidays, served);
+        assertInstanceOf(LastKnownGoodStore.StaleHolidays.class, served);
+        assertTrue(store.isDegraded(2025, "DE"));
+        assertFalse(store.isDegraded(2025, "US"));
+
+        store.put(2025, "DE", holidays);
+        assertFalse(store.isDegraded(2025, "DE"));
+    }
+
+    @Test
+    void fallbackWithoutDataIsEmptyButStillDegraded() {
+        LastKnownGoodStore store = open();
+
+        List<Holiday> empty = store.fallback(2025, "US");
+        assertTrue(empty.isEmpty());
+        assertInstanceOf(LastKnownGoodStore.StaleHolidays.class, empty);
+        assertTrue(store.isDegraded(2025, "US"));
+    }
+
+    @Test
+    void survivesRestartAndKeepsTheLatestRecord() {
+        LastKnownGoodStore store = open();
+        store.put(2025, "DE", holidays.subList(0, 1));
+        store.put(2025, "DE", holidays);
+        store.put(2024, "US", holidays);
+        reopen(store);
+
+        LastKnownGoodStore restarted = open();
+
+        assertEquals(2, restarted.size());
+        assertEquals(holidays, restarted.fallback(2025, "DE"));
+    }
+
+    @Test
+    void unchangedListsAreNotAppendedAgain() throws IOException {
+        LastKnownGoodStore store = open();
+        store.put(2025, "DE", holidays);
+        long size = Files.size(file());
+
+        store.put(2025, "DE", List.copyOf(holidays));
+        store.put(2025, "DE", store.fallback(2025, "DE"));
+
+        assertEquals(size, Files.size(file()));
+    }
+
+    @Test
+    void tornTailIsDroppedOnOpen() throws IOException {
+        LastKnownGoodStore store = open();
+        store.put(2025, "DE", holidays);
+        reopen(store);
+        long intact = Files.size(file());
+        Files.write(file(), new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        LastKnownGoodStore restarted = open();
+        restarted.put(2025, "US", holidays);
+        reopen(restarted);
+
+        assertTrue(Files.size(file()) > intact);
+        LastKnownGoodStore again = open();
+        assertEquals(2, again.size());
+        assertEquals(holidays, again.fallback(2025, "US"));
+    }
+
+    @Test
+    void compactsSupersededRecords() throws IOException {
+        LastKnownGoodStore store = open();
+        for (int i = 0; i < 400; i++) {
+            store.put(2025, "DE", List.of(new Holiday(LocalDate.of(2025, 1, 1).plusDays(i % 300), "Day " + i, null)));
+        }
+        store.put(2025, "DE", holidays);
+        reopen(store);
+
+        assertTrue(Files.size(file()) < 200 * 32, "log should have been compacted");
+        assertEquals(holidays, open().fallback(2025, "DE"));
+    }
+
+    @Test
+    void secondStoreOnTheSameFileKeepsUpdatesInMemory() throws IOException {
+        LastKnownGoodStore store = open();
+        store.put(2025, "DE", holidays);
+        long size = Files.size(file());
+
+        LastKnownGoodStore other = open();
+        other.put(2025, "US", holidays);
+
+        assertEquals(holidays, other.fallback(2025, "DE"));
+        assertEquals(holidays, other.fallback(2025, "US"));
+        assertEquals(size, Files.size(file()));
+    }
+}
@@ -0,0 +1,192 @@
+package com.bingyu.holidays.cache;
+
+import com.bingyu.holidays.model.Holiday;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RedisSharedCacheTierTest {
+
+    private static final String CHANNEL = "holidays:invalidate";
+
+    private EmbeddedRespServer server;
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    private final List<Holiday> holidays = List.of(
+            new Holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "Neujahr"));
+    private final List<Holiday> corrected = List.of(
+            new Holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "Neujahr"),
+            new Holiday(LocalDate.of(2025, 1, 6), "Epiphany", "Heilige Drei Könige"));
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new EmbeddedRespServer();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (int i = resources.size() - 1; i >= 0; i--) {
+            resources.get(i).close();
+        }
+        server.close();
+    }
+
+    private TieredCaffeineCache newReplica() throws InterruptedException {
+        int subscribers = server.subscriberCount(CHANNEL);
+        RedisSharedCacheTier tier = newTier(server.getPort());
+        waitForSubscribers(subscribers + 1);
+        return new TieredCaffeineCache("holidays", Caffeine.newBuilder().build(), List.of(tier));
+    }
+
+    private RedisSharedCacheTier newTier(int port) {
+        ClientResources clientResources = ClientResources.create();
+        resources.add(() -> clientResources.shutdown().get());
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("localhost", port),
+                LettuceClientConfiguration.builder()
+                        .clientResources(clientResources)
+                        .commandTimeout(Duration.ofMillis(500))
+                        .build());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        resources.add(connectionFactory::destroy);
+        RedisSharedCacheTier tier = new RedisSharedCacheTier("holidays", connectionFactory,
+                clientResources.eventBus(), "holidays:", Duration.ofHours(1), CHANNEL, Duration.ofMillis(200));
+        resources.add(tier::close);
+        return tier;
+    }
+
+    private void waitForSubscribers(int count) throws InterruptedException {
+        for (int i = 0; i < 250 && server.subscriberCount(CHANNEL) < count; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(count, server.subscriberCount(CHANNEL));
+    }
+
+    @Test
+    void valueWrittenByOneReplica_isReadByAnother() throws InterruptedException {
+        TieredCaffeineCache first = newReplica();
+        TieredCaffeineCache second = newReplica();
+
+        first.put("2025-DE", holidays);
+
+        assertEquals(holidays, second.get("2025-DE").get());
+        assertEquals(1, second.getNativeCache().estimatedSize());
+    }
+
+    @Test
+    void writeOnOneReplica_invalidatesNearCacheOfOthers() throws InterruptedException {
+        TieredCaffeineCache first = newReplica();
+        TieredCaffeineCache second = newReplica();
+        first.put("2025-DE", holidays);
+        assertEquals(holidays, second.get("2025-DE").get());
+
+        first.put("2025-DE", corrected);
+
+        for (int i = 0; i < 100 && second.getNativeCache().getIfPresent("2025-DE") != null; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(corrected, second.get("2025-DE").get());
+        assertEquals(corrected, first.get("2025-DE").get());
+    }
+
+    @Test
+    void evict_removesSharedEntry() throws InterruptedException {
+        TieredCaffeineCache first = newReplica();
+        TieredCaffeineCache second = newReplica();
+        first.put("2025-DE", holidays);
+
+        first.evict("2025-DE");
+
+        assertNull(second.get("2025-DE"));
+    }
+
+    @Test
+    void refreshClaim_isGrantedToOneReplicaPerWindow() {
+        RedisSharedCacheTier first = newTier(server.getPort());
+        RedisSharedCacheTier second = newTier(server.getPort());
+
+        assertTrue(first.claimRefresh("2025-DE", Duration.ofMinutes(10)));
+        assertFalse(second.claimRefresh("2025-DE", Duration.ofMinutes(10)));
+        assertFalse(first.claimRefresh("2025-DE", Duration.ofMinutes(10)));
+        assertTrue(second.claimRefresh("2025-US", Duration.ofMinutes(10)));
+    }
+
+    @Test
+    void reconnect_dropsNearCacheAndResubscribes() throws Exception {
+        TieredCaffeineCache replica = newReplica();
+        TieredCaffeineCache other = newReplica();
+        replica.put("2025-DE", holidays);
+        assertEquals(1, replica.getNativeCache().estimatedSize());
+
+        server.dropConnections();
+
+        awaitEmpty(replica);
+        assertEquals(holidays, replica.get("2025-DE").get(), "the shared entry is read again");
+        waitForSubscribers(2);
+        other.put("2025-DE", corrected);
+        awaitEmpty(replica);
+        assertEquals(corrected, replica.get("2025-DE").get());
+    }
+
+    @Test
+    void serverDownAtStartup_subscribesOnceItIsUp() throws Exception {
+        int port;
+        try (EmbeddedRespServer stopped = new EmbeddedRespServer()) {
+            port = stopped.getPort();
+        }
+        RedisSharedCacheTier tier = newTier(port);
+        TieredCaffeineCache replica = new TieredCaffeineCache("holidays", Caffeine.newBuilder().build(), List.of(tier));
+        replica.getNativeCache().put("2025-DE", holidays);
+
+        server.close();
+        server = new EmbeddedRespServer(port);
+
+        waitForSubscribers(1);
+        awaitEmpty(replica);
+    }
+
+    private static void awaitEmpty(TieredCaffeineCache cache) throws InterruptedException {
+        for (int i = 0; i < 250 && cache.getNativeCache().estimatedSize() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, cache.getNativeCache().estimatedSize());
+    }
+
+    @Test
+    void unreachableServer_behavesLikeMiss() throws IOException {
+        int port;
+        try (EmbeddedRespServer stopped = new EmbeddedRespServer()) {
+            port = stopped.getPort();
+        }
+        RedisSharedCacheTier tier = newTier(port);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        tier.bindTo(registry);
+
+        tier.write("2025-DE", holidays);
+
+        assertNull(tier.read("2025-DE"));
+        assertTrue(tier.claimRefresh("2025-DE", Duration.ofMinutes(10)), "refresh locally without the server");
+        assertEquals(1, registry.get("cache.shared.errors").functionCounter().count());
+        assertEquals(2, registry.get("cache.shared.skipped").functionCounter().count(),
+                "the read and the claim fall in the backoff window after the failed write");
+    }
+}
@@ -0,0 +1,72 @@
+package com.bingyu.holidays.cache;
+
+import com.bingyu.holidays.model.Holiday;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TieredCaffeineCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private PersistentCacheTier tier;
+
+    private final List<Holiday> holidays = List.of(
+            new Holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "Neujahr"));
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        JavaType type = mapper.getTypeFactory().constructCollectionType(List.class, Holiday.class);
+        tier = new PersistentCacheTier("holidays", dir, mapper, type, Duration.ofHours(1));
+    }
+
+    private TieredCaffeineCache newCache() {
+        return new TieredCaffeineCache("holidays", Caffeine.newBuilder().recordStats().build(),
+                List.of(tier));
+    }
+
+    @Test
+    void restartedCache_isPreloadedFromDisk() {
+        newCache().put("2025-DE", holidays);
+
+        TieredCaffeineCache restarted = newCache();
+
+        assertEquals(1, restarted.getNativeCache().estimatedSize());
+        assertEquals(holidays, restarted.get("2025-DE").get());
+    }
+
+    @Test
+    void inMemoryMiss_fallsThroughToDisk() {
+        TieredCaffeineCache cache = newCache();
+        cache.put("2025-DE", holidays);
+        cache.getNativeCache().invalidateAll();
+
+        assertEquals(holidays, cache.get("2025-DE").get());
+        assertEquals(1, cache.getNativeCache().estimatedSize());
+    }
+
+    @Test
+    void evict_removesBothTiers() {
+        TieredCaffeineCache cache = newCache();
+        cache.put("2025-DE", holidays);
+
+        cache.evict("2025-DE");
+
+        assertNull(cache.get("2025-DE"));
+        assertNull(tier.read("2025-DE"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.bingyu.holidays.client;
+
+import com.bingyu.holidays.client.AdaptiveConcurrencyLimiter.Outcome;
+import com.bingyu.holidays.exception.UpstreamSaturatedException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private AdaptiveConcurrencyLimiter limiter(int initial, Duration maxWait) {
+        return new AdaptiveConcurrencyLimiter("test", initial, 1, 10, 0.5, 1000.0, maxWait);
+    }
+
+    @Test
+    void successesGrowLimitAndOverloadHalvesIt() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, Duration.ZERO);
+        for (int i = 0; i < 20; i++) {
+            limiter.release(limiter.acquire(), Outcome.SUCCESS);
+        }
+        assertTrue(limiter.getLimit() > 4, "limit was " + limiter.getLimit());
+
+        int grown = limiter.getLimit();
+        limiter.release(limiter.acquire(), Outcome.OVERLOAD);
+        assertTrue(limiter.getLimit() <= grown / 2 + 1, "limit was " + limiter.getLimit());
+
+        int before = limiter.getLimit();
+        limiter.release(limiter.acquire(), Outcome.IGNORE);
+        assertEquals(before, limiter.getLimit());
+    }
+
+    @Test
+    void neverDropsBelowMinimum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, Duration.ZERO);
+        for (int i = 0; i < 10; i++) {
+            limiter.release(limiter.acquire(), Outcome.OVERLOAD);
+        }
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    void callerAboveLimit_waitsForReleasedPermit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, Duration.ofSeconds(5));
+        long held = limiter.acquire();
+
+        CompletableFuture<Long> waiter = CompletableFuture.supplyAsync(limiter::acquire);
+        while (limiter.getWaiting() == 0) {
+            Thread.sleep(1);
+        }
+        assertFalse(waiter.isDone());
+
+        limiter.release(held, Outcome.IGNORE);
+        limiter.release(waiter.get(5, TimeUnit.SECONDS), Outcome.IGNORE);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void callerAboveLimit_rejectedAfterDeadline() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, Duration.ofMillis(20));
+        limiter.acquire();
+
+        assertThrows(UpstreamSaturatedException.class, limiter::acquire);
+        assertEquals(0, limiter.getWaiting());
+    }
+
+    @Test
+    void reactiveCallerAboveLimit_queuesWithoutBlockingUntilReleased() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, Duration.ofSeconds(5));
+        Sinks.One<String> first = Sinks.one();
+
+        StepVerifier.create(limiter.limit(first.asMono(), e -> Outcome.OVERLOAD))
+                .then(() -> {
+                    assertEquals(1, limiter.getInFlight());
+                    StepVerifier.create(limiter.limit(Mono.just("second"), e -> Outcome.OVERLOAD))
+                            .then(() -> {
+                                assertEquals(1, limiter.getWaiting());
+                                first.tryEmitValue("first");
+                            })
+                            .expectNext("second")
+                            .verifyComplete();
+                })
+                .expectNext("first")
+                .verifyComplete();
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getWaiting());
+    }
+
+    @Test
+    void reactiveCall_releasesWithClassifiedOutcome() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, Duration.ZERO);
+
+        StepVerifier.create(limiter.limit(Mono.error(new IllegalStateException("503")), e -> Outcome.OVERLOAD))
+                .verifyError(IllegalStateException.class);
+
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void reactiveCallerAboveLimit_rejectedAfterDeadline() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, Duration.ofMillis(20));
+        limiter.acquire();
+
+        StepVerifier.create(limiter.limit(Mono.just("late"), e -> Outcome.IGNORE))
+                .verifyError(UpstreamSaturatedException.class);
+        assertEquals(0, limiter.getWaiting());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter("bad", 0, 1, 10, 0.5, 2.0, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter("bad", 2, 1, 10, 1.5, 2.0, Duration.ZERO));
+    }
+}
@@ -0,0 +1,121 @@
+package com.bingyu.holidays.client;
+
+import com.bingyu.holidays.model.Holiday;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CoalescingHolidayApiClientTest {
+
+    private final List<Holiday> holidays = List.of(
+            new Holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "New Year's Day"));
+
+    @Test
+    void concurrentCallsForSameKey_shareOneUpstreamFetch() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CoalescingHolidayApiClient client = new CoalescingHolidayApiClient((year, code) -> {
+            upstreamCalls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return holidays;
+        });
+
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<List<Holiday>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> client.fetchHolidays(2025, "US")));
+            }
+            while (client.getCoalescedCount() < callers - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<List<Holiday>> result : results) {
+                assertEquals(holidays, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void completedFetch_isNotReused() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CoalescingHolidayApiClient client = new CoalescingHolidayApiClient((year, code) -> {
+            upstreamCalls.incrementAndGet();
+            return holidays;
+        });
+
+        client.fetchHolidays(2025, "US");
+        client.fetchHolidays(2025, "US");
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void failure_isPropagatedAndKeyReleased() {
+        CoalescingHolidayApiClient client = new CoalescingHolidayApiClient((year, code) -> {
+            throw new IllegalStateException("upstream down");
+        });
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> client.fetchHolidays(2025, "US"));
+        assertEquals("upstream down", ex.getMessage());
+        assertTrue(assertThrows(IllegalStateException.class,
+                () -> client.fetchHolidays(2025, "US")).getMessage().contains("down"));
+    }
+
+    @Test
+    void errorInDelegate_releasesJoinedCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CoalescingHolidayApiClient client = new CoalescingHolidayApiClient((year, code) -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new AssertionError("delegate broke");
+        });
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        client.bindTo(registry);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<Holiday>> leader = pool.submit(() -> client.fetchHolidays(2025, "US"));
+            Future<List<Holiday>> follower = pool.submit(() -> client.fetchHolidays(2025, "US"));
+            while (client.getCoalescedCount() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<List<Holiday>> result : List.of(leader, follower)) {
+                ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(AssertionError.class, ex.getCause());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, registry.get("holidays.upstream.coalesced").functionCounter().count());
+    }
+}
@@ -0,0 +1,183 @@
+package com.bingyu.holidays.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HedgingPolicyTest {
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    /** The first attempt hangs for a second, later ones answer at once. */
+    private Mono<String> slowThenFast() {
+        int attempt = attempts.incrementAndGet();
+        return attempt == 1
+                ? Mono.delay(Duration.ofSeconds(1)).thenReturn("first")
+                : Mono.just("hedge");
+    }
+
+    private static void warmUp(HedgingPolicy policy) {
+        for (int i = 0; i < HedgingPolicy.MIN_SAMPLES + 12; i++) {
+            policy.record(Duration.ofMillis(1).toNanos());
+        }
+    }
+
+    @Test
+    void noHedgeUntilLatenciesAreKnown() {
+        HedgingPolicy policy = new HedgingPolicy("test", true, 0.95, Duration.ofMillis(10), 1.0);
+
+        assertNull(policy.getDelay());
+        assertEquals("first", policy.hedge(this::slowThenFast).block());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void slowCall_isHedgedAndFasterAnswerWins() {
+        HedgingPolicy policy = new HedgingPolicy("test", true, 0.95, Duration.ofMillis(20), 1.0);
+        warmUp(policy);
+        assertNotNull(policy.getDelay());
+
+        long start = System.nanoTime();
+        assertEquals("hedge", policy.hedge(this::slowThenFast).block());
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 500);
+        assertEquals(2, attempts.get());
+        assertEquals(1, policy.getHedges());
+        assertEquals(1, policy.getWins());
+    }
+
+    @Test
+    void failingHedge_doesNotCancelSlowSuccessfulFirstAttempt() {
+        HedgingPolicy policy = new HedgingPolicy("test", true, 0.95, Duration.ofMillis(20), 1.0);
+        warmUp(policy);
+
+        String answer = policy.hedge(() -> {
+            attempts.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(200)).thenReturn("first");
+        }, () -> {
+            attempts.incrementAndGet();
+            return Mono.error(new IllegalStateException("503 Service Unavailable"));
+        }).block();
+
+        assertEquals("first", answer);
+        assertEquals(2, attempts.get());
+        assertEquals(1, policy.getHedges());
+        assertEquals(0, policy.getWins());
+    }
+
+    @Test
+    void bothAttemptsFailing_reportsFirstAttemptsError() {
+        HedgingPolicy policy = new HedgingPolicy("test", true, 0.95, Duration.ofMillis(20), 1.0);
+        warmUp(policy);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> policy.hedge(
+                () -> Mono.delay(Duration.ofMillis(100)).then(Mono.error(new IllegalStateException("first"))),
+                () -> Mono.error(new IllegalArgumentException("hedge"))).block());
+        assertEquals("first", error.getMessage());
+    }
+
+    @Test
+    void firstAttemptFailingBeforeDelay_isNotHedged() {
+        HedgingPolicy policy = new HedgingPolicy("test", true, 0.95, Duration.ofMillis(50), 1.0);
+        warmUp(policy);
+
+        assertThrows(IllegalStateException.class, () -> policy.hedge(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new IllegalStateException("reset"));
+        }).block());
+        assertEquals(1, attempts.get());
+        assertEquals(0, policy.getHedges());
+    }
+
+    @Test
+    void firstAttemptFailingFast_failsWithoutWaitingForTheDelay() {
+        HedgingPolicy policy = new HedgingPolicy("test", true, 0.95, Duration.ofMillis(500), 1.0);
+        warmUp(policy);
+
+        long start = System.nanoTime();
+        assertThrows(WebClientResponseException.class, () -> policy.hedge(
+                () -> Mono.error(WebClientResponseException.create(404, "Not Found", null, null, null)),
+                () -> {
+                    attempts.incrementAndGet();
+                    return Mono.just("hedge");
+                }).block());
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 250);
+        assertEquals(0, attempts.get());
+        assertEquals(0, policy.getHedges());
+    }
+
+    @Test
+    void firstAttemptRejectedAfterHedgeWasSent_cancelsTheHedge() {
+        HedgingPolicy policy = new HedgingPolicy("test", true, 0.95, Duration.ofMillis(20), 1.0);
+        warmUp(policy);
+        AtomicBoolean hedgeCancelled = new AtomicBoolean();
+
+        long start = System.nanoTime();
+        WebClientResponseException error = assertThrows(WebClientResponseException.class, () -> policy.hedge(
+                () -> Mono.delay(Duration.ofMillis(100))
+                        .then(Mono.error(WebClientResponseException.create(400, "Bad Request", null, null, null))),
+                () -> Mono.delay(Duration.ofSeconds(1)).thenReturn("hedge")
+                        .doOnCancel(() -> hedgeCancelled.set(true))).block());
+
+        assertEquals(400, error.getStatusCode().value());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 500);
+        assertTrue(hedgeCancelled.get());
+    }
+
+    @Test
+    void firstAttemptOverloadedAfterHedgeWasSent_waitsForTheHedge() {
+        HedgingPolicy policy = new HedgingPolicy("test", true, 0.95, Duration.ofMillis(20), 1.0);
+        warmUp(policy);
+
+        String answer = policy.hedge(
+                () -> Mono.delay(Duration.ofMillis(50))
+                        .then(Mono.error(WebClientResponseException.create(503, "Service Unavailable", null, null, null))),
+                () -> Mono.delay(Duration.ofMillis(150)).thenReturn("hedge")).block();
+
+        assertEquals("hedge", answer);
+        assertEquals(1, policy.getWins());
+    }
+
+    @Test
+    void fastCall_isNotHedged() {
+        HedgingPolicy policy = new HedgingPolicy("test", true, 0.95, Duration.ofMillis(200), 1.0);
+        warmUp(policy);
+
+        assertEquals("ok", policy.hedge(() -> {
+            attempts.incrementAndGet();
+            return Mono.just("ok");
+        }).block());
+        assertEquals(1, attempts.get());
+        assertEquals(0, policy.getHedges());
+    }
+
+    @Test
+    void hedgesAreCappedByBudget() {
+        HedgingPolicy policy = new HedgingPolicy("test", true, 0.95, Duration.ofMillis(20), 0.0);
+        warmUp(policy);
+
+        assertEquals("first", policy.hedge(this::slowThenFast).block());
+        assertEquals(1, attempts.get());
+        assertEquals(0, policy.getHedges());
+    }
+
+    @Test
+    void disabledPolicy_neverHedges() {
+        HedgingPolicy policy = HedgingPolicy.disabled("test");
+        warmUp(policy);
+
+        assertEquals("first", policy.hedge(this::slowThenFast).block());
+        assertEquals(1, attempts.get());
+    }
+}
@@ -0,0 +1,70 @@
+package com.bingyu.holidays.client;
+
+import com.bingyu.holidays.model.Holiday;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HolidayJsonReaderTest {
+
+    private static final String NAGER_RESPONSE = """
+            [
+              {"date":"2025-01-01","localName":"Neujahr","name":"New Year's Day","countryCode":"DE",
+               "fixed":true,"global":true,"counties":null,"launchYear":null,"types":["Public"]},
+              {"date":"2025-01-06","localName":"Heilige Drei Könige","name":"Epiphany","countryCode":"DE",
+               "fixed":true,"global":false,"counties":["DE-BW","DE-BY","DE-ST"],"launchYear":null,
+               "types":["Public"],"extra":{"nested":[1,2,{"deep":true}]}},
+              {"date":"2025-05-01","localName":null,"name":"Labour Day"}
+            ]
+            """;
+
+    private static List<Holiday> read(String json) {
+        return HolidayJsonReader.read(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void readsNagerResponse_skippingUnknownFields() {
+        List<Holiday> holidays = read(NAGER_RESPONSE);
+
+        assertEquals(List.of(
+                new Holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "Neujahr"),
+                new Holiday(LocalDate.of(2025, 1, 6), "Epiphany", "Heilige Drei Könige"),
+                new Holiday(LocalDate.of(2025, 5, 1), "Labour Day", null)), holidays);
+        assertNull(holidays.get(2).getLocalName());
+    }
+
+    @Test
+    void namesAreSharedAcrossResponses() {
+        Holiday first = read(NAGER_RESPONSE).get(0);
+        Holiday second = read(NAGER_RESPONSE.replace("2025-", "2026-")).get(0);
+
+        assertSame(first.getName(), second.getName());
+        assertSame(first.getLocalName(), second.getLocalName());
+    }
+
+    @Test
+    void emptyArray_isEmptyList() {
+        assertEquals(List.of(), read("[]"));
+    }
+
+    @Test
+    void malformedInput_isRejected() {
+        assertThrows(UncheckedIOException.class, () -> read("{\"status\":404}"));
+        assertThrows(UncheckedIOException.class, () -> read("[{\"name\":\"No date\"}]"));
+    }
+
+    @Test
+    void parseDate_handlesIsoDatesAndRejectsInvalidOnes() {
+        assertEquals(LocalDate.of(2024, 2, 29), HolidayJsonReader.parseDate("2024-02-29"));
+        assertThrows(RuntimeException.class, () -> HolidayJsonReader.parseDate("2025-02-30"));
+        assertThrows(RuntimeException.class, () -> HolidayJsonReader.parseDate("2025-0x-01"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.bingyu.holidays.client;
+
+import com.bingyu.holidays.cache.LastKnownGoodStore;
+import com.bingyu.holidays.load.FakeNagerServer;
+import com.bingyu.holidays.model.Holiday;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "resilience4j.retry.instances.nagerApi.wait-duration=10ms"
+})
+public class NagerDateApiClientFallbackTest {
+
+    private static final FakeNagerServer UPSTREAM = new FakeNagerServer();
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("nager.api.base-url", UPSTREAM::baseUrl);
+        registry.add("holidays.fallback.file", () -> tempDir().resolve("last-known-good.log").toString());
+    }
+
+    private static Path tempDir() {
+        try {
+            return Files.createTempDirectory("holidays-fallback");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        UPSTREAM.close();
+    }
+
+    @Autowired
+    private NagerDateApiClient client;
+
+    @Autowired
+    private LastKnownGoodStore lastKnownGood;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakers;
+
+    @Test
+    void failuresFallBackToLastKnownGoodAndOpenTheCircuit() {
+        Cache cache = cacheManager.getCache(NagerDateApiClient.CACHE_NAME);
+        CircuitBreaker circuit = circuitBreakers.circuitBreaker(NagerDateApiClient.RETRY_INSTANCE);
+        List<Holiday> fresh = client.fetchHolidays(2025, "US");
+        assertEquals(9, fresh.size());
+        cache.evict("2025-US");
+
+        UPSTREAM.errorRate(1.0);
+        List<Holiday> stale = client.fetchHolidays(2025, "US");
+
+        assertEquals(fresh, stale);
+        assertInstanceOf(LastKnownGoodStore.StaleHolidays.class, stale);
+        assertTrue(lastKnownGood.isDegraded(2025, "US"));
+        assertNull(cache.get("2025-US"), "fallback data must not be cached");
+
+        for (int i = 0; i < 10 && circuit.getState() != CircuitBreaker.State.OPEN; i++) {
+            client.fetchHolidays(2025, "DE");
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuit.getState());
+        long requests = UPSTREAM.requestCount();
+        assertEquals(fresh, client.fetchHolidays(2025, "US"));
+        assertEquals(requests, UPSTREAM.requestCount(), "an open circuit must not call upstream");
+
+        UPSTREAM.errorRate(0);
+        circuit.transitionToClosedState();
+        assertEquals(fresh, client.fetchHolidays(2025, "US"));
+        assertFalse(lastKnownGood.isDegraded(2025, "US"));
+        assertNotNull(cache.get("2025-US"));
+    }
+}
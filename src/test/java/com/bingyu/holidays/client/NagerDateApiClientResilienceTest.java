@@ -0,0 +1,152 @@
+package com.bingyu.holidays.client;
+
+import com.bingyu.holidays.model.Holiday;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Scope;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the Resilience4j annotations on {@link NagerDateApiClient} are
+ * applied, against a stubbed upstream.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "resilience4j.retry.instances.nagerApi.wait-duration=10ms",
+        "resilience4j.ratelimiter.instances.nagerApi.limit-for-period=1000",
+        "resilience4j.ratelimiter.instances.nagerApi.limit-refresh-period=1h",
+        "resilience4j.ratelimiter.instances.nagerApi.timeout-duration=0",
+        "holidays.upstream.concurrency.max-wait=50ms"
+})
+public class NagerDateApiClientResilienceTest {
+
+    private static final String HOLIDAYS_JSON =
+            "[{\"date\":\"2025-01-01\",\"name\":\"New Year's Day\",\"localName\":\"New Year's Day\"}]";
+
+    static final AtomicInteger HOLIDAY_CALLS = new AtomicInteger();
+    static final AtomicReference<HttpStatus> STATUS = new AtomicReference<>(HttpStatus.OK);
+
+    @TestConfiguration
+    static class StubUpstream {
+        @Bean
+        @Scope("prototype")
+        public WebClient.Builder webClientBuilder() {
+            ExchangeFunction upstream = request -> {
+                if (!request.url().getPath().contains("/PublicHolidays/")) {
+                    return Mono.just(json(HttpStatus.OK, "[{\"countryCode\":\"US\"}]"));
+                }
+                HOLIDAY_CALLS.incrementAndGet();
+                HttpStatus status = STATUS.get();
+                return Mono.just(json(status, status.is2xxSuccessful() ? HOLIDAYS_JSON : ""));
+            };
+            return WebClient.builder().exchangeFunction(upstream);
+        }
+
+        private static ClientResponse json(HttpStatus status, String body) {
+            return ClientResponse.create(status)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(body)
+                    .build();
+        }
+    }
+
+    @Autowired
+    private NagerDateApiClient client;
+
+    @Autowired
+    private RateLimiterRegistry rateLimiters;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void resetUpstream() {
+        HOLIDAY_CALLS.set(0);
+        STATUS.set(HttpStatus.OK);
+    }
+
+    @Test
+    void refreshRetriesThenFallsBackToAnEmptyList() {
+        STATUS.set(HttpStatus.SERVICE_UNAVAILABLE);
+
+        List<Holiday> holidays = client.refreshHolidays(2025, "DE");
+
+        assertTrue(holidays.isEmpty());
+        assertEquals(3, HOLIDAY_CALLS.get(), "max-attempts of the nagerApi retry");
+        assertEquals(3, meterRegistry.get(UpstreamMetrics.REQUESTS)
+                .tag("outcome", "SERVER_ERROR").timer().count());
+        assertEquals(1, meterRegistry.get(UpstreamMetrics.FALLBACKS).tag("country", "DE").counter().count());
+    }
+
+    @Test
+    @DirtiesContext
+    void rateLimiterRejectionsAreCountedAndFallBack() {
+        rateLimiters.rateLimiter(NagerDateApiClient.RETRY_INSTANCE).drainPermissions();
+
+        List<Holiday> holidays = client.fetchHolidays(2025, "FR");
+
+        assertTrue(holidays.isEmpty());
+        assertEquals(0, HOLIDAY_CALLS.get());
+        assertEquals(3, meterRegistry.get(UpstreamMetrics.RATE_LIMITED).counter().count());
+        assertEquals(1, meterRegistry.get(UpstreamMetrics.FALLBACKS)
+                .tags("country", "FR", "exception", "RequestNotPermitted").counter().count());
+    }
+
+    @Test
+    void saturatedCallsAreNotRetried() {
+        List<Long> held = new ArrayList<>();
+        while (limiter.getInFlight() < limiter.getLimit()) {
+            held.add(limiter.acquire());
+        }
+        try {
+            List<Holiday> holidays = client.fetchHolidays(2025, "IT");
+
+            assertTrue(holidays.isEmpty());
+            assertEquals(0, HOLIDAY_CALLS.get());
+            assertEquals(1, meterRegistry.get("holidays.upstream.concurrency.rejected").functionCounter().count());
+            assertEquals(1, meterRegistry.get(UpstreamMetrics.FALLBACKS)
+                    .tags("country", "IT", "exception", "UpstreamSaturatedException").counter().count());
+        } finally {
+            held.forEach(permit -> limiter.release(permit, AdaptiveConcurrencyLimiter.Outcome.IGNORE));
+        }
+    }
+
+    @Test
+    void cacheHitsSkipTheRateLimiter() {
+        RateLimiter rateLimiter = rateLimiters.rateLimiter(NagerDateApiClient.RETRY_INSTANCE);
+        List<Holiday> first = client.fetchHolidays(2025, "US");
+        int permits = rateLimiter.getMetrics().getAvailablePermissions();
+
+        List<Holiday> second = client.fetchHolidays(2025, "US");
+
+        assertEquals(first, second);
+        assertEquals(1, HOLIDAY_CALLS.get());
+        assertEquals(permits, rateLimiter.getMetrics().getAvailablePermissions());
+    }
+}
@@ -0,0 +1,170 @@
+package com.bingyu.holidays.client;
+
+import com.bingyu.holidays.cache.CacheTier;
+import com.bingyu.holidays.cache.LastKnownGoodStore;
+import com.bingyu.holidays.cache.TieredCacheManager;
+import com.bingyu.holidays.model.Holiday;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReactiveNagerDateApiClientTest {
+
+    private static final String HOLIDAYS_JSON =
+            "[{\"date\":\"2025-01-01\",\"name\":\"New Year's Day\",\"localName\":\"New Year's Day\"}]";
+
+    @TempDir
+    Path dir;
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final AtomicReference<HttpStatus> status = new AtomicReference<>(HttpStatus.OK);
+    private final List<String> blockingOnEventLoop = new CopyOnWriteArrayList<>();
+    private final AtomicInteger tierReads = new AtomicInteger();
+
+    private final AdaptiveConcurrencyLimiter limiter =
+            new AdaptiveConcurrencyLimiter("test", 4, 1, 10, 0.5, 1000.0, Duration.ofSeconds(5));
+    private LastKnownGoodStore lastKnownGood;
+    private ReactiveNagerDateApiClient client;
+
+    @BeforeEach
+    void setUp() {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            upstreamCalls.incrementAndGet();
+            HttpStatus current = status.get();
+            return Mono.just(ClientResponse.create(current)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(current.is2xxSuccessful() ? HOLIDAYS_JSON : "")
+                    .build());
+        });
+        TieredCacheManager cacheManager = new TieredCacheManager(Caffeine.newBuilder(),
+                List.of(NagerDateApiClient.CACHE_NAME),
+                Map.of(NagerDateApiClient.CACHE_NAME, List.of(new RecordingTier())), null);
+        lastKnownGood = new LastKnownGoodStore(dir.resolve("last-known-good.log")) {
+            @Override
+            public void put(int year, String countryCode, List<Holiday> holidays) {
+                checkBlockingAllowed("store put");
+                super.put(year, countryCode, holidays);
+            }
+
+            @Override
+            public List<Holiday> fallback(int year, String countryCode) {
+                checkBlockingAllowed("store fallback");
+                return super.fallback(year, countryCode);
+            }
+        };
+        RateLimiterRegistry rateLimiters = RateLimiterRegistry.ofDefaults();
+        client = new ReactiveNagerDateApiClient(builder, cacheManager,
+                RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()),
+                CircuitBreakerRegistry.ofDefaults(), rateLimiters,
+                new UpstreamMetrics(new SimpleMeterRegistry(), rateLimiters), limiter,
+                HedgingPolicy.disabled("test"), lastKnownGood,
+                "http://nager.test", "/PublicHolidays/{year}/{country}", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        lastKnownGood.close();
+    }
+
+    private void checkBlockingAllowed(String operation) {
+        if (Schedulers.isInNonBlockingThread()) {
+            blockingOnEventLoop.add(operation + " on " + Thread.currentThread().getName());
+        }
+    }
+
+    private List<Holiday> fetchFromNonBlockingThread(int year, String countryCode) {
+        return client.fetchHolidays(year, countryCode).subscribeOn(Schedulers.parallel()).block();
+    }
+
+    @Test
+    void cacheTiersAndStoreAreNotTouchedOnNonBlockingThreads() {
+        List<Holiday> first = fetchFromNonBlockingThread(2025, "US");
+        List<Holiday> second = fetchFromNonBlockingThread(2025, "US");
+
+        assertEquals(1, first.size());
+        assertEquals(first, second);
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, tierReads.get(), "a memory hit must not read the lower tiers");
+        assertTrue(blockingOnEventLoop.isEmpty(), blockingOnEventLoop::toString);
+    }
+
+    @Test
+    void fallbackIsNotServedOnNonBlockingThreads() {
+        status.set(HttpStatus.SERVICE_UNAVAILABLE);
+
+        List<Holiday> holidays = fetchFromNonBlockingThread(2025, "DE");
+
+        assertTrue(holidays.isEmpty());
+        assertTrue(lastKnownGood.isDegraded(2025, "DE"));
+        assertTrue(blockingOnEventLoop.isEmpty(), blockingOnEventLoop::toString);
+    }
+
+    @Test
+    void upstreamCalls_holdAndReleaseConcurrencyPermits() {
+        int before = limiter.getLimit();
+        status.set(HttpStatus.SERVICE_UNAVAILABLE);
+
+        fetchFromNonBlockingThread(2025, "FR");
+
+        assertEquals(0, limiter.getInFlight());
+        assertTrue(limiter.getLimit() < before, "overload must shrink the limit, was " + limiter.getLimit());
+    }
+
+    private class RecordingTier implements CacheTier {
+        private final Map<Object, Object> entries = new ConcurrentHashMap<>();
+
+        @Override
+        public String getCacheName() {
+            return NagerDateApiClient.CACHE_NAME;
+        }
+
+        @Override
+        public Object read(Object key) {
+            checkBlockingAllowed("tier read");
+            tierReads.incrementAndGet();
+            return entries.get(key);
+        }
+
+        @Override
+        public void write(Object key, Object value) {
+            checkBlockingAllowed("tier write");
+            entries.put(key, value);
+        }
+
+        @Override
+        public void delete(Object key) {
+            entries.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            entries.clear();
+        }
+    }
+}
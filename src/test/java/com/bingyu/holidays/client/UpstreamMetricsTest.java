@@ -0,0 +1,62 @@
+package com.bingyu.holidays.client;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UpstreamMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RateLimiterRegistry rateLimiters = RateLimiterRegistry.of(RateLimiterConfig.custom()
+            .limitForPeriod(1)
+            .limitRefreshPeriod(Duration.ofHours(1))
+            .timeoutDuration(Duration.ZERO)
+            .build());
+    private final UpstreamMetrics metrics = new UpstreamMetrics(registry, rateLimiters);
+
+    private long requests(String outcome, String status) {
+        return registry.get(UpstreamMetrics.REQUESTS)
+                .tags("outcome", outcome, "status", status)
+                .timer().count();
+    }
+
+    @Test
+    void recordsOutcomeAndStatus() {
+        metrics.success(metrics.start(), List.of("holiday"));
+        metrics.success(metrics.start(), List.of());
+        metrics.failure(metrics.start(), WebClientResponseException.create(
+                HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests", null, null, null));
+        metrics.failure(metrics.start(), new IllegalStateException("connection reset"));
+
+        assertEquals(1, requests("SUCCESS", "200"));
+        assertEquals(1, requests("EMPTY", "200"));
+        assertEquals(1, requests("CLIENT_ERROR", "429"));
+        assertEquals(1, requests("ERROR", "none"));
+        assertEquals(4, registry.get(UpstreamMetrics.REQUESTS).timers().size());
+        assertTrue(registry.get(UpstreamMetrics.REQUESTS).timers().stream()
+                .allMatch(timer -> timer.getId().getTag("country") == null),
+                "the histogram timer must not be tagged per country");
+    }
+
+    @Test
+    void countsFallbacksAndRateLimiterRejections() {
+        metrics.fallback("US", new IllegalStateException("down"));
+        RateLimiter limiter = rateLimiters.rateLimiter(NagerDateApiClient.RETRY_INSTANCE);
+        limiter.acquirePermission();
+        limiter.acquirePermission();
+
+        assertEquals(1, registry.get(UpstreamMetrics.FALLBACKS)
+                .tags("country", "US", "exception", "IllegalStateException").counter().count());
+        assertEquals(1, registry.get(UpstreamMetrics.RATE_LIMITED).counter().count());
+    }
+}
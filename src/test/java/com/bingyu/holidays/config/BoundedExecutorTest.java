@@ -0,0 +1,84 @@
+package com.bingyu.holidays.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedExecutorTest {
+
+    @Test
+    void neverRunsMoreThanLimitConcurrently() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            BoundedExecutor bounded = new BoundedExecutor(pool, 2);
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxSeen = new AtomicInteger();
+            int tasks = 20;
+            CountDownLatch done = new CountDownLatch(tasks);
+            for (int i = 0; i < tasks; i++) {
+                bounded.execute(() -> {
+                    int now = running.incrementAndGet();
+                    maxSeen.accumulateAndGet(now, Math::max);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertTrue(maxSeen.get() <= 2, "max concurrency was " + maxSeen.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void directDelegate_runsAllTasks() {
+        BoundedExecutor bounded = new BoundedExecutor(Runnable::run, 1);
+        AtomicInteger count = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            bounded.execute(count::incrementAndGet);
+        }
+        assertEquals(5, count.get());
+    }
+
+    @Test
+    void rejectedTasks_runOnTheCallerAndReleaseTheirSlot() {
+        AtomicInteger handedOver = new AtomicInteger();
+        BoundedExecutor bounded = new BoundedExecutor(task -> {
+            if (handedOver.incrementAndGet() % 2 == 0) {
+                throw new RejectedExecutionException("shutting down");
+            }
+            task.run();
+        }, 1);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        AtomicInteger count = new AtomicInteger();
+        for (int i = 0; i < 6; i++) {
+            futures.add(CompletableFuture.runAsync(count::incrementAndGet, bounded));
+        }
+
+        futures.forEach(future -> assertTrue(future.isDone()));
+        assertEquals(6, count.get());
+    }
+
+    @Test
+    void rejectsNonPositiveLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedExecutor(Runnable::run, 0));
+    }
+}
@@ -0,0 +1,36 @@
+package com.bingyu.holidays.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CountryCodeTableTest {
+
+    @Test
+    void contains_onlyExactUpperCaseCodes() {
+        CountryCodeTable table = CountryCodeTable.of(List.of("US", "DE", "ZZ", "AA"));
+
+        assertTrue(table.contains("US"));
+        assertTrue(table.contains("AA"));
+        assertTrue(table.contains("ZZ"));
+        assertFalse(table.contains("us"));
+        assertFalse(table.contains("FR"));
+        assertFalse(table.contains("USA"));
+        assertFalse(table.contains("U"));
+        assertFalse(table.contains(null));
+    }
+
+    @Test
+    void of_skipsMalformedCodes() {
+        CountryCodeTable table = CountryCodeTable.of(Arrays.asList("US", "deu", "d1", null, ""));
+
+        assertEquals(Set.of("US"), table.codes());
+        assertFalse(CountryCodeTable.EMPTY.contains("US"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.bingyu.holidays.config;
+
+import com.bingyu.holidays.cache.LastKnownGoodStore;
+import com.bingyu.holidays.client.HolidayApiClient;
+import com.bingyu.holidays.model.Holiday;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Status;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HolidayCacheWarmerTest {
+
+    private final Clock clock = Clock.fixed(
+            LocalDate.of(2025, 6, 1).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+    private final Set<String> fetched = ConcurrentHashMap.newKeySet();
+    private final HolidayApiClient client = (year, code) -> {
+        fetched.add(year + "-" + code);
+        return code.equals("XX") ? List.of() : List.of(new Holiday(LocalDate.of(year, 1, 1), "NY", "NY"));
+    };
+
+    private HolidayCacheWarmer warmer(boolean enabled, List<String> countries) {
+        CountryCodeLoader codeLoader = mock(CountryCodeLoader.class);
+        when(codeLoader.getCodes()).thenReturn(Set.of("US", "DE"));
+        return new HolidayCacheWarmer(client, codeLoader, Runnable::run, enabled, countries,
+                1, 1, 4, 1000, clock);
+    }
+
+    @Test
+    void warmUp_fetchesSurroundingYearsForAllCountries() {
+        HolidayCacheWarmer warmer = warmer(true, List.of());
+        assertEquals(Status.OUT_OF_SERVICE, warmer.health().getStatus());
+
+        warmer.warmUp();
+
+        assertEquals(Set.of("2024-US", "2025-US", "2026-US", "2024-DE", "2025-DE", "2026-DE"), fetched);
+        assertTrue(warmer.isWarm());
+        assertEquals(Status.UP, warmer.health().getStatus());
+        assertEquals(6, warmer.health().getDetails().get("loaded"));
+    }
+
+    @Test
+    void warmUp_onlySelectedCountries_countsEmptyResultsAsFailed() {
+        HolidayCacheWarmer warmer = warmer(true, List.of("XX"));
+
+        warmer.warmUp();
+
+        assertEquals(Set.of("2024-XX", "2025-XX", "2026-XX"), fetched);
+        assertEquals(3, warmer.health().getDetails().get("failed"));
+    }
+
+    @Test
+    void warmUp_countsFallbackDataAsFailed(@TempDir Path dir) {
+        LastKnownGoodStore lastKnownGood = new LastKnownGoodStore(dir.resolve("lkg.bin"));
+        lastKnownGood.put(2025, "US", List.of(new Holiday(LocalDate.of(2025, 1, 1), "NY", "NY")));
+        CountryCodeLoader codeLoader = mock(CountryCodeLoader.class);
+        HolidayApiClient upstreamDown = (year, code) -> lastKnownGood.fallback(year, code);
+        HolidayCacheWarmer warmer = new HolidayCacheWarmer(upstreamDown, codeLoader, Runnable::run, true,
+                List.of("US"), 1, 1, 4, 1000, clock);
+
+        warmer.warmUp();
+
+        assertEquals(0, warmer.health().getDetails().get("loaded"));
+        assertEquals(3, warmer.health().getDetails().get("failed"));
+    }
+
+    @Test
+    void warmUp_waitsForPermitsBeforeHandingTasksToTheExecutor() {
+        CountryCodeLoader codeLoader = mock(CountryCodeLoader.class);
+        AtomicLong longestTaskNanos = new AtomicLong();
+        Executor timing = task -> {
+            long start = System.nanoTime();
+            task.run();
+            longestTaskNanos.accumulateAndGet(System.nanoTime() - start, Math::max);
+        };
+        HolidayCacheWarmer warmer = new HolidayCacheWarmer(client, codeLoader, timing, true,
+                List.of("US"), 1, 1, 4, 1, clock);
+
+        long start = System.nanoTime();
+        warmer.warmUp();
+
+        // At one permit per second three fetches need at least one refresh period,
+        // none of which may be spent on an executor thread.
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 900);
+        assertTrue(Duration.ofNanos(longestTaskNanos.get()).toMillis() < 500);
+        assertEquals(3, warmer.health().getDetails().get("loaded"));
+    }
+
+    @Test
+    void disabled_isReadyImmediately() {
+        HolidayCacheWarmer warmer = warmer(false, List.of());
+        warmer.onApplicationReady();
+
+        assertTrue(warmer.isWarm());
+        assertFalse(fetched.iterator().hasNext());
+    }
+}
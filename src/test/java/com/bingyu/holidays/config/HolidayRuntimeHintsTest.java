@@ -0,0 +1,26 @@
+package com.bingyu.holidays.config;
+
+import com.bingyu.holidays.dto.CountryHolidayDTO;
+import com.bingyu.holidays.model.Holiday;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HolidayRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void registersSnapshotAndJsonTypes() {
+        new HolidayRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.resource().forResource("country-codes.json").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Holiday.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(CountryHolidayDTO.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(CountryCodeLoader.AvailableCountry.class).test(hints));
+    }
+}
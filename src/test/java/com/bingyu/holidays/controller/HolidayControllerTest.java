@@ -1,9 +1,25 @@
 package com.bingyu.holidays.controller;
 
+import com.bingyu.holidays.client.HolidayApiClient;
+import com.bingyu.holidays.config.CountryCodeLoader;
+import com.bingyu.holidays.dto.BatchQueryType;
+import com.bingyu.holidays.dto.BatchResult;
 import com.bingyu.holidays.dto.CountryHolidayCount;
+import com.bingyu.holidays.dto.CountryHolidayDTO;
 import com.bingyu.holidays.dto.LastHolidayDTO;
+import com.bingyu.holidays.dto.YearlyHolidayCount;
 import com.bingyu.holidays.exception.InvalidCountryCodeException;
+import com.bingyu.holidays.exception.InvalidRangeException;
+import com.bingyu.holidays.index.CommonHolidayRegistry;
+import com.bingyu.holidays.index.HolidayCalendar;
+import com.bingyu.holidays.index.HolidayCalendarRegistry;
+import com.bingyu.holidays.index.HolidayIndexRegistry;
+import com.bingyu.holidays.index.HolidayOverlapMatrix;
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.service.DegradedKeys;
 import com.bingyu.holidays.service.HolidayService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,16 +28,30 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(HolidayController.class)
@@ -49,7 +79,7 @@ public class HolidayControllerTest {
                 new LastHolidayDTO(LocalDate.of(2025, 6, 10), "Eid al-Adha"),
                 new LastHolidayDTO(LocalDate.of(2025, 5,  1), "Labor Day")
         );
-        given(service.getLastThreeHolidays("US")).willReturn(mockList);
+        given(service.getLastThreeHolidays(eq("US"), any(), any())).willReturn(mockList);
 
         mvc.perform(get("/holidays/last-three")
                         .param("country", "US")
@@ -68,7 +98,7 @@ public class HolidayControllerTest {
                 new CountryHolidayCount("DE", 12),
                 new CountryHolidayCount("US", 10)
         );
-        given(service.countWeekdayHolidays(eq(2025), anyList())).willReturn(mockCounts);
+        given(service.countWeekdayHolidays(eq(2025), anyList(), any())).willReturn(mockCounts);
 
         mvc.perform(get("/holidays/weekday-count")
                         .param("year", "2025")
@@ -86,7 +116,7 @@ public class HolidayControllerTest {
         List<LastHolidayDTO> commons = List.of(
                 new LastHolidayDTO(LocalDate.of(2025, 12, 25), "Christmas Day")
         );
-        given(service.findCommonHolidays(2025, "US", "DE")).willReturn(commons);
+        given(service.findCommonHolidays(eq(2025), eq(List.of("US", "DE")), any())).willReturn(commons);
 
         mvc.perform(get("/holidays/common")
                         .param("year",     "2025")
@@ -102,11 +132,329 @@ public class HolidayControllerTest {
     @Test
     @DisplayName("GET /holidays/last-three?country=BAD returns 400 Bad Request")
     void lastThree_invalidCountry_returnsBadRequest() throws Exception {
-        given(service.getLastThreeHolidays("BAD"))
+        given(service.getLastThreeHolidays(eq("BAD"), any(), any()))
                 .willThrow(new InvalidCountryCodeException("Invalid country code: BAD"));
 
         mvc.perform(get("/holidays/last-three")
                         .param("country", "BAD"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @DisplayName("GET /holidays/common?year=2025&countries=US,DE,FR return common list")
+    void common_withCountriesList_usesNWayIntersection() throws Exception {
+        List<LastHolidayDTO> commons = List.of(
+                new LastHolidayDTO(LocalDate.of(2025, 12, 25), "Christmas Day")
+        );
+        given(service.findCommonHolidays(eq(2025), eq(List.of("US", "DE", "FR")), any())).willReturn(commons);
+
+        mvc.perform(get("/holidays/common")
+                        .param("year", "2025")
+                        .param("countries", "US,DE,FR")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].name", is("Christmas Day")));
+    }
+
+    @Test
+    @DisplayName("GET /holidays/common?year=2025&countryA=US returns 400 Bad Request")
+    void common_missingCountries_returnsBadRequest() throws Exception {
+        mvc.perform(get("/holidays/common")
+                        .param("year", "2025")
+                        .param("countryA", "US"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /holidays/common/matrix?year=2025&countries=US,DE streams common holidays and overlap rows")
+    void commonMatrix_streamsOverlap() throws Exception {
+        LocalDate christmas = LocalDate.of(2025, 12, 25);
+        LocalDate newYear = LocalDate.of(2025, 1, 1);
+        HolidayCalendar us = HolidayCalendar.build(2025, List.of(
+                new Holiday(christmas, "Christmas Day", "Christmas Day"),
+                new Holiday(LocalDate.of(2025, 7, 4), "Independence Day", "Independence Day")));
+        HolidayCalendar de = HolidayCalendar.build(2025, List.of(
+                new Holiday(christmas, "Christmas Day", "Weihnachtstag"),
+                new Holiday(newYear, "New Year's Day", "Neujahr"),
+                new Holiday(LocalDate.of(2025, 10, 3), "German Unity Day", "Tag der Deutschen Einheit")));
+        given(service.overlapMatrix(eq(2025), eq(List.of("US", "DE")), any()))
+                .willReturn(new HolidayOverlapMatrix(2025, List.of("US", "DE"), List.of(us, de)));
+
+        MvcResult result = mvc.perform(get("/holidays/common/matrix")
+                        .param("year", "2025")
+                        .param("countries", "US,DE"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.countries", contains("US", "DE")))
+                .andExpect(jsonPath("$.commonHolidays.length()", is(1)))
+                .andExpect(jsonPath("$.commonHolidays[0].date", is("2025-12-25")))
+                .andExpect(jsonPath("$.overlap[0]", contains(2, 1)))
+                .andExpect(jsonPath("$.overlap[1]", contains(1, 3)));
+
+        mvc.perform(get("/holidays/common/matrix")
+                        .param("year", "2025")
+                        .param("countries", "US,DE"))
+                .andExpect(header().string("ETag", matchesPattern("\"[0-9a-f]{32}\"")));
+    }
+
+    @Test
+    @DisplayName("GET /holidays/weekday-count for a past year is cacheable for long and revalidates with 304")
+    void weekdayCount_pastYear_etagAndNotModified() throws Exception {
+        given(service.countWeekdayHolidays(eq(2020), anyList(), any()))
+                .willReturn(List.of(new CountryHolidayCount("US", 10)));
+
+        String etag = mvc.perform(get("/holidays/weekday-count")
+                        .param("year", "2020")
+                        .param("countries", "US", "DE"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", matchesPattern("\"[0-9a-f]{32}\"")))
+                .andExpect(header().string("Cache-Control", "max-age=604800, public, immutable"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/holidays/weekday-count")
+                        .param("year", "2020")
+                        .param("countries", "US", "DE")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Cache-Control", "max-age=604800, public, immutable"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("GET /holidays/weekday-count built from fallback data is marked degraded and not cached")
+    void weekdayCount_degraded_marksResponse() throws Exception {
+        given(service.countWeekdayHolidays(eq(2019), anyList(), any())).willAnswer(inv -> {
+            inv.<DegradedKeys>getArgument(2).add(2019, "FR");
+            return List.of(new CountryHolidayCount("US", 10));
+        });
+        given(service.countWeekdayHolidays(eq(2020), anyList(), any()))
+                .willReturn(List.of(new CountryHolidayCount("US", 10)));
+
+        mvc.perform(get("/holidays/weekday-count")
+                        .param("year", "2019")
+                        .param("countries", "US", "FR"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HolidayController.DEGRADED_HEADER, "2019-FR"))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(jsonPath("$[0].weekdayHolidayCount", is(10)));
+
+        mvc.perform(get("/holidays/weekday-count")
+                        .param("year", "2020")
+                        .param("countries", "US", "DE"))
+                .andExpect(header().doesNotExist(HolidayController.DEGRADED_HEADER));
+    }
+
+    @Test
+    @DisplayName("GET /holidays/last-three revalidates against the response it would send")
+    void lastThree_etagFollowsTheResponse() throws Exception {
+        LocalDate date = LocalDate.of(2025, 7, 1);
+        given(service.getLastThreeHolidays(eq("US"), eq(date), any()))
+                .willReturn(List.of(new LastHolidayDTO(LocalDate.of(2025, 5, 26), "Memorial Day")));
+        String etag = mvc.perform(get("/holidays/last-three")
+                        .param("country", "US")
+                        .param("date", date.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/holidays/last-three")
+                        .param("country", "US")
+                        .param("date", date.toString())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        given(service.getLastThreeHolidays(eq("US"), eq(date), any()))
+                .willReturn(List.of(new LastHolidayDTO(LocalDate.of(2025, 6, 19), "Juneteenth")));
+        mvc.perform(get("/holidays/last-three")
+                        .param("country", "US")
+                        .param("date", date.toString())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    @DisplayName("GET /holidays/range streams holidays of several countries in date order")
+    void range_streamsMergedHolidays() throws Exception {
+        LocalDate from = LocalDate.of(2024, 12, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        given(service.holidaysBetween(eq(from), eq(to), eq(List.of("US", "DE")), any())).willReturn(Stream.of(
+                new CountryHolidayDTO(LocalDate.of(2024, 12, 25), "US", "Christmas Day", "Christmas Day"),
+                new CountryHolidayDTO(LocalDate.of(2025, 1, 1), "DE", "New Year's Day", "Neujahr")));
+
+        MvcResult result = mvc.perform(get("/holidays/range")
+                        .param("from", "2024-12-01")
+                        .param("to", "2025-01-31")
+                        .param("countries", "US,DE"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("max-age=")))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].date", is("2024-12-25")))
+                .andExpect(jsonPath("$[0].countryCode", is("US")))
+                .andExpect(jsonPath("$[1].localName", is("Neujahr")));
+    }
+
+    @Test
+    @DisplayName("GET /holidays/common/matrix with more than max-countries countries returns 400 Bad Request")
+    void commonMatrix_tooManyCountries_returnsBadRequest() throws Exception {
+        String countries = IntStream.range(0, 101)
+                .mapToObj(i -> String.valueOf((char) ('A' + i / 26)) + (char) ('A' + i % 26))
+                .collect(Collectors.joining(","));
+
+        mvc.perform(get("/holidays/common/matrix")
+                        .param("year", "2025")
+                        .param("countries", countries))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).overlapMatrix(anyInt(), argThat(list -> list.size() > 100), any());
+    }
+
+    @Test
+    @DisplayName("GET /holidays/range with an inverted range returns 400 Bad Request")
+    void range_invalid_returnsBadRequest() throws Exception {
+        given(service.holidaysBetween(any(), any(), anyList(), any()))
+                .willThrow(new InvalidRangeException("Date range must be ascending"));
+
+        mvc.perform(get("/holidays/range")
+                        .param("from", "2025-02-01")
+                        .param("to", "2025-01-01")
+                        .param("countries", "US"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /holidays/weekday-count/range returns counts per year and country")
+    void weekdayCountRange_returnsYearlyCounts() throws Exception {
+        given(service.countWeekdayHolidays(eq(2020), eq(2021), eq(List.of("US")), any())).willReturn(List.of(
+                new YearlyHolidayCount(2020, "US", 9),
+                new YearlyHolidayCount(2021, "US", 10)));
+
+        mvc.perform(get("/holidays/weekday-count/range")
+                        .param("fromYear", "2020")
+                        .param("toYear", "2021")
+                        .param("countries", "US"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$[1].year", is(2021)))
+                .andExpect(jsonPath("$[1].weekdayHolidayCount", is(10)));
+    }
+
+    @Test
+    @DisplayName("GET /holidays/weekday-count/range over too many years is rejected before any upstream call")
+    void weekdayCountRange_tooLong_makesNoUpstreamCalls() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        HolidayApiClient upstream = (year, countryCode) -> {
+            upstreamCalls.incrementAndGet();
+            return List.of();
+        };
+        CountryCodeLoader codes = mock(CountryCodeLoader.class);
+        given(codes.isValid(anyString())).willReturn(true);
+        HolidayService realService = new HolidayService(upstream, new HolidayIndexRegistry(),
+                new HolidayCalendarRegistry(), new CommonHolidayRegistry(), Runnable::run, codes, 4, 20);
+        MockMvc standalone = MockMvcBuilders.standaloneSetup(new HolidayController(realService,
+                new ObjectMapper(), 100, 100, Duration.ofDays(7), Duration.ofMinutes(10))).build();
+
+        standalone.perform(get("/holidays/weekday-count/range")
+                        .param("fromYear", "1000")
+                        .param("toYear", "2025")
+                        .param("countries", "US,DE"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Holidays without a local name are counted and intersected like any other")
+    void holidaysWithoutLocalName_areServed() throws Exception {
+        LocalDate mayDay = LocalDate.of(2025, 5, 1);
+        LocalDate christmas = LocalDate.of(2025, 12, 25);
+        HolidayApiClient upstream = (year, countryCode) -> List.of(
+                new Holiday(mayDay, "Labour Day", countryCode.equals("DE") ? null : "Labour Day"),
+                new Holiday(christmas, "Christmas Day", "Christmas Day"));
+        CountryCodeLoader codes = mock(CountryCodeLoader.class);
+        given(codes.isValid(anyString())).willReturn(true);
+        HolidayService realService = new HolidayService(upstream, new HolidayIndexRegistry(),
+                new HolidayCalendarRegistry(), new CommonHolidayRegistry(), Runnable::run, codes, 4, 20);
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        MockMvc standalone = MockMvcBuilders.standaloneSetup(new HolidayController(realService,
+                        json, 100, 100, Duration.ofDays(7), Duration.ofMinutes(10)))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(json))
+                .build();
+
+        standalone.perform(get("/holidays/common")
+                        .param("year", "2025")
+                        .param("countries", "DE,US"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].date", is("2025-05-01")))
+                .andExpect(jsonPath("$[0].name").value(nullValue()))
+                .andExpect(jsonPath("$[1].name", is("Christmas Day")));
+
+        standalone.perform(get("/holidays/weekday-count")
+                        .param("year", "2025")
+                        .param("countries", "DE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].weekdayHolidayCount", is(2)));
+
+        MvcResult matrix = standalone.perform(get("/holidays/common/matrix")
+                        .param("year", "2025")
+                        .param("countries", "DE,US"))
+                .andExpect(header().string("ETag", matchesPattern("\"[0-9a-f]{32}\"")))
+                .andReturn();
+        standalone.perform(asyncDispatch(matrix))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.commonHolidays", hasSize(2)))
+                .andExpect(jsonPath("$.overlap[0]", contains(2, 2)));
+    }
+
+    @Test
+    @DisplayName("POST /holidays/batch returns one result or error per query, in order")
+    void batch_returnsResultsInQueryOrder() throws Exception {
+        given(service.batch(anyList())).willAnswer(inv -> List.of(
+                new BatchResult("q1", BatchQueryType.WEEKDAY_COUNT, List.of(new CountryHolidayCount("US", 10)), null, null),
+                new BatchResult("q2", BatchQueryType.LAST_THREE, null, "Invalid country code: ZZ", null)));
+
+        mvc.perform(post("/holidays/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"id":"q1","type":"weekday-count","year":2025,"countries":["US"]},
+                                 {"id":"q2","type":"last-three","country":"ZZ"}]
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].type").value("weekday-count"))
+                .andExpect(jsonPath("$[0].result[0].weekdayHolidayCount").value(10))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].error").value("Invalid country code: ZZ"));
+    }
+
+    @Test
+    @DisplayName("POST /holidays/batch marks results built from fallback data")
+    void batch_marksDegradedResults() throws Exception {
+        given(service.batch(anyList())).willAnswer(inv -> List.of(
+                new BatchResult("q1", BatchQueryType.WEEKDAY_COUNT, List.of(new CountryHolidayCount("FR", 0)), null,
+                        List.of("2018-FR")),
+                new BatchResult("q2", BatchQueryType.COMMON, List.of(), null, null),
+                new BatchResult("q3", BatchQueryType.WEEKDAY_COUNT, null, "upstream down", null)));
+
+        mvc.perform(post("/holidays/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"id":"q1","type":"weekday-count","year":2018,"countries":["FR"]},
+                                 {"id":"q2","type":"common","year":2018,"countries":["US","DE"]},
+                                 {"id":"q3","type":"weekday-count","year":2018,"countries":["FR"]}]
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].degraded[0]").value("2018-FR"))
+                .andExpect(jsonPath("$[1].degraded").doesNotExist())
+                .andExpect(jsonPath("$[2].degraded").doesNotExist());
+    }
 }
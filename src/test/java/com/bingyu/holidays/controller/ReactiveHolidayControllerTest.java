@@ -0,0 +1,177 @@
+package com.bingyu.holidays.controller;
+
+import com.bingyu.holidays.dto.CountryHolidayCount;
+import com.bingyu.holidays.dto.LastHolidayDTO;
+import com.bingyu.holidays.dto.YearlyHolidayCount;
+import com.bingyu.holidays.service.DegradedKeys;
+import com.bingyu.holidays.service.ReactiveHolidayService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReactiveHolidayController.class)
+public class ReactiveHolidayControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ReactiveHolidayService service;
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public ReactiveHolidayService service() {
+            return mock(ReactiveHolidayService.class);
+        }
+    }
+
+    /**
+     * Streams answer with a {@code Mono} of the response, so they go async
+     * twice: once for the headers and once more while the body is written.
+     */
+    private MvcResult streamed(MvcResult started) throws Exception {
+        MvcResult streaming = mvc.perform(asyncDispatch(started)).andReturn();
+        streaming.getAsyncResult();
+        return streaming;
+    }
+
+    @Test
+    @DisplayName("GET /reactive/holidays/weekday-count returns sorted counts")
+    void weekdayCount_shouldReturnSortedCounts() throws Exception {
+        given(service.countWeekdayHolidays(eq(2025), eq(List.of("US", "DE")), any())).willReturn(Mono.just(List.of(
+                new CountryHolidayCount("DE", 12), new CountryHolidayCount("US", 10))));
+
+        MvcResult result = mvc.perform(get("/reactive/holidays/weekday-count")
+                        .param("year", "2025")
+                        .param("countries", "US,DE"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].countryCode", is("DE")));
+    }
+
+    @Test
+    @DisplayName("GET /reactive/holidays/common accepts countries like the blocking endpoint")
+    void common_withCountriesList_usesNWayIntersection() throws Exception {
+        given(service.findCommonHolidays(eq(2025), eq(List.of("US", "DE", "FR")), any())).willReturn(Mono.just(
+                List.of(new LastHolidayDTO(LocalDate.of(2025, 12, 25), "Christmas Day"))));
+
+        MvcResult result = mvc.perform(get("/reactive/holidays/common")
+                        .param("year", "2025")
+                        .param("countries", "US,DE,FR"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Christmas Day")));
+
+        mvc.perform(get("/reactive/holidays/common")
+                        .param("year", "2025")
+                        .param("countryA", "US"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /reactive/holidays/weekday-count/stream emits one NDJSON line per country")
+    void weekdayCountStream_writesNdjson() throws Exception {
+        given(service.streamWeekdayHolidays(eq(2025), eq(List.of("US", "DE")), any())).willReturn(Flux.just(
+                new CountryHolidayCount("US", 10), new CountryHolidayCount("DE", 12)));
+
+        MvcResult result = mvc.perform(get("/reactive/holidays/weekday-count/stream")
+                        .param("year", "2025")
+                        .param("countries", "US,DE")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult streamed = streamed(result);
+        status().isOk().match(streamed);
+        content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON).match(streamed);
+        content().string("{\"countryCode\":\"US\",\"weekdayHolidayCount\":10}\n"
+                + "{\"countryCode\":\"DE\",\"weekdayHolidayCount\":12}\n").match(streamed);
+    }
+
+    @Test
+    @DisplayName("GET /reactive/holidays/weekday-count/range/stream emits server-sent events")
+    void weekdayCountRangeStream_writesServerSentEvents() throws Exception {
+        given(service.streamWeekdayHolidays(eq(2024), eq(2025), eq(List.of("US")), any())).willReturn(Flux.just(
+                new YearlyHolidayCount(2024, "US", 9), new YearlyHolidayCount(2025, "US", 10)));
+
+        MvcResult result = mvc.perform(get("/reactive/holidays/weekday-count/range/stream")
+                        .param("fromYear", "2024")
+                        .param("toYear", "2025")
+                        .param("countries", "US")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult streamed = streamed(result);
+        status().isOk().match(streamed);
+        content().string(containsString(
+                "data:{\"year\":2025,\"countryCode\":\"US\",\"weekdayHolidayCount\":10}")).match(streamed);
+    }
+
+    @Test
+    @DisplayName("Reactive responses built from fallback data carry the degraded header, streams included")
+    void degradedResponses_areMarked() throws Exception {
+        given(service.countWeekdayHolidays(eq(2019), eq(List.of("US", "FR")), any())).willAnswer(inv -> {
+            inv.<DegradedKeys>getArgument(2).add(2019, "FR");
+            return Mono.just(List.of(new CountryHolidayCount("US", 10), new CountryHolidayCount("FR", 0)));
+        });
+        given(service.streamWeekdayHolidays(eq(2018), eq(2019), eq(List.of("FR")), any())).willAnswer(inv ->
+                Flux.defer(() -> {
+                    inv.<DegradedKeys>getArgument(3).add(2019, "FR");
+                    return Flux.just(new YearlyHolidayCount(2019, "FR", 0), new YearlyHolidayCount(2018, "FR", 8));
+                }));
+
+        MvcResult counts = mvc.perform(get("/reactive/holidays/weekday-count")
+                        .param("year", "2019")
+                        .param("countries", "US,FR"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(counts))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HolidayController.DEGRADED_HEADER, "2019-FR"));
+
+        MvcResult stream = mvc.perform(get("/reactive/holidays/weekday-count/range/stream")
+                        .param("fromYear", "2018")
+                        .param("toYear", "2019")
+                        .param("countries", "FR")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult streamed = streamed(stream);
+        status().isOk().match(streamed);
+        header().string(HolidayController.DEGRADED_HEADER, "2019-FR").match(streamed);
+        content().string(containsString("\"year\":2018")).match(streamed);
+    }
+}
@@ -0,0 +1,56 @@
+package com.bingyu.holidays.index;
+
+import com.bingyu.holidays.dto.LastHolidayDTO;
+import com.bingyu.holidays.model.Holiday;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class CommonHolidayRegistryTest {
+
+    private final CommonHolidayRegistry registry = new CommonHolidayRegistry();
+
+    private final LocalDate christmas = LocalDate.of(2025, 12, 25);
+    private final LocalDate newYear = LocalDate.of(2025, 1, 1);
+    private final HolidayCalendar us = HolidayCalendar.build(2025, List.of(
+            new Holiday(christmas, "Christmas Day", "Christmas Day")));
+    private final HolidayCalendar de = HolidayCalendar.build(2025, List.of(
+            new Holiday(christmas, "Christmas Day", "Weihnachtstag"),
+            new Holiday(newYear, "New Year's Day", "Neujahr")));
+
+    @Test
+    void sameCalendars_reuseComputedResult() {
+        List<LastHolidayDTO> first = registry.get(2025, List.of("US", "DE"), List.of(us, de));
+
+        assertEquals(List.of(new LastHolidayDTO(christmas, "Christmas Day")), first);
+        assertSame(first, registry.get(2025, List.of("US", "DE"), List.of(us, de)));
+    }
+
+    @Test
+    void changedCalendar_recomputesResult() {
+        List<LastHolidayDTO> first = registry.get(2025, List.of("US", "DE"), List.of(us, de));
+        HolidayCalendar updatedUs = HolidayCalendar.build(2025, List.of(
+                new Holiday(christmas, "Christmas Day", "Christmas Day"),
+                new Holiday(newYear, "New Year's Day", "New Year's Day")));
+
+        List<LastHolidayDTO> second = registry.get(2025, List.of("US", "DE"), List.of(updatedUs, de));
+
+        assertNotSame(first, second);
+        assertEquals(List.of(
+                new LastHolidayDTO(newYear, "New Year's Day"),
+                new LastHolidayDTO(christmas, "Christmas Day")), second);
+    }
+
+    @Test
+    void countryOrder_isPartOfTheKey() {
+        assertEquals(List.of(new LastHolidayDTO(christmas, "Christmas Day")),
+                registry.get(2025, List.of("US", "DE"), List.of(us, de)));
+        assertEquals(List.of(new LastHolidayDTO(christmas, "Weihnachtstag")),
+                registry.get(2025, List.of("DE", "US"), List.of(de, us)));
+    }
+}
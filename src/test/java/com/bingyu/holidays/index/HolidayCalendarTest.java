@@ -0,0 +1,101 @@
+package com.bingyu.holidays.index;
+
+import com.bingyu.holidays.dto.LastHolidayDTO;
+import com.bingyu.holidays.model.Holiday;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class HolidayCalendarTest {
+
+    @Test
+    void weekendMask_marksEverySaturdayAndSunday() {
+        for (int year : new int[]{-44, 1900, 2000, 2023, 2024, 2025, 2100}) {
+            long[] mask = HolidayCalendar.weekendMask(year);
+            for (LocalDate d = LocalDate.of(year, 1, 1); d.getYear() == year; d = d.plusDays(1)) {
+                int bit = d.getDayOfYear() - 1;
+                boolean weekend = d.getDayOfWeek().getValue() >= 6;
+                assertEquals(weekend, (mask[bit >>> 6] & (1L << bit)) != 0, d.toString());
+            }
+        }
+    }
+
+    @Test
+    void build_countsWeekdaysAndKeepsFirstLocalName() {
+        LocalDate leapDay = LocalDate.of(2024, 2, 29);
+        LocalDate newYearsEve = LocalDate.of(2024, 12, 31);
+        HolidayCalendar calendar = HolidayCalendar.build(2024, List.of(
+                new Holiday(leapDay, "Leap", "Schalttag"),
+                new Holiday(leapDay, "Leap 2", "Schalttag 2"),
+                new Holiday(newYearsEve, "NYE", "Silvester"),
+                new Holiday(LocalDate.of(2024, 6, 1), "Sat", "Samstag"),
+                new Holiday(LocalDate.of(2025, 1, 1), "Other year", "Neujahr")));
+
+        assertEquals(3, calendar.weekdayCount());
+        assertEquals(2, calendar.weekdayDateCount());
+        assertEquals("Schalttag", calendar.localNameAt(leapDay.getDayOfYear() - 1));
+        assertEquals("Silvester", calendar.localNameAt(newYearsEve.getDayOfYear() - 1));
+    }
+
+    @Test
+    void andInto_intersectsBitsets() {
+        LocalDate d1 = LocalDate.of(2025, 1, 1);
+        LocalDate d2 = LocalDate.of(2025, 12, 25);
+        HolidayCalendar a = HolidayCalendar.build(2025, List.of(new Holiday(d1, "a", "a"), new Holiday(d2, "b", "b")));
+        HolidayCalendar b = HolidayCalendar.build(2025, List.of(new Holiday(d2, "c", "c")));
+
+        long[] common = HolidayCalendar.newBitset();
+        a.copyDaysTo(common);
+        b.andInto(common);
+
+        long[] expected = HolidayCalendar.newBitset();
+        b.copyDaysTo(expected);
+        assertArrayEquals(expected, common);
+    }
+
+    @Test
+    void overlapMatrixVersion_changesOnlyWithTheData() {
+        Holiday christmas = new Holiday(LocalDate.of(2024, 12, 25), "Christmas Day", "Weihnachtstag");
+        HolidayCalendar de = HolidayCalendar.build(2024, List.of(christmas));
+        HolidayCalendar us = HolidayCalendar.build(2024, List.of());
+
+        String version = new HolidayOverlapMatrix(2024, List.of("DE", "US"), List.of(de, us)).version();
+        assertEquals(version, new HolidayOverlapMatrix(2024, List.of("DE", "US"),
+                List.of(HolidayCalendar.build(2024, List.of(christmas)), us)).version());
+        assertNotEquals(version, new HolidayOverlapMatrix(2024, List.of("US", "DE"), List.of(us, de)).version());
+
+        HolidayCalendar renamed = HolidayCalendar.build(2024, List.of(
+                new Holiday(christmas.getDate(), "Christmas Day", "Erster Weihnachtstag")));
+        assertNotEquals(version, new HolidayOverlapMatrix(2024, List.of("DE", "US"), List.of(renamed, us)).version());
+    }
+
+    @Test
+    void nullLocalNames_keepTheirSlotAndDoNotBreakTheVersion() {
+        LocalDate mayDay = LocalDate.of(2024, 5, 1);
+        LocalDate christmas = LocalDate.of(2024, 12, 25);
+        HolidayCalendar de = HolidayCalendar.build(2024, List.of(
+                new Holiday(mayDay, "Labour Day", null),
+                new Holiday(christmas, "Christmas Day", "Weihnachtstag")));
+        HolidayCalendar us = HolidayCalendar.build(2024, List.of(
+                new Holiday(mayDay, "May Day", "May Day"),
+                new Holiday(christmas, "Christmas Day", "Christmas Day")));
+
+        assertNull(de.localNameAt(mayDay.getDayOfYear() - 1));
+        assertEquals("Weihnachtstag", de.localNameAt(christmas.getDayOfYear() - 1));
+
+        HolidayOverlapMatrix matrix = new HolidayOverlapMatrix(2024, List.of("DE", "US"), List.of(de, us));
+        assertEquals(List.of(new LastHolidayDTO(mayDay, null), new LastHolidayDTO(christmas, "Weihnachtstag")),
+                matrix.commonHolidays());
+        HolidayCalendar named = HolidayCalendar.build(2024, List.of(
+                new Holiday(mayDay, "Labour Day", ""),
+                new Holiday(christmas, "Christmas Day", "Weihnachtstag")));
+        assertNotEquals(matrix.version(),
+                new HolidayOverlapMatrix(2024, List.of("DE", "US"), List.of(named, us)).version());
+    }
+}
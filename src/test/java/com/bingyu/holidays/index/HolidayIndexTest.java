@@ -0,0 +1,59 @@
+package com.bingyu.holidays.index;
+
+import com.bingyu.holidays.model.Holiday;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class HolidayIndexTest {
+
+    private final List<Holiday> y2024 = List.of(
+            new Holiday(LocalDate.of(2024, 12, 25), "Christmas", "Weihnachten"),
+            new Holiday(LocalDate.of(2024, 1, 1), "New Year", "Neujahr"));
+    private final List<Holiday> y2025 = List.of(
+            new Holiday(LocalDate.of(2025, 5, 1), "Labour Day", "Tag der Arbeit"),
+            new Holiday(LocalDate.of(2025, 1, 1), "New Year", "Neujahr"));
+
+    @Test
+    void build_sortsAcrossYears() {
+        HolidayIndex index = HolidayIndex.build(2024, List.of(y2024, y2025));
+
+        assertEquals(4, index.size());
+        assertEquals(2024, index.fromYear());
+        assertEquals(2025, index.toYear());
+        assertEquals(LocalDate.of(2024, 1, 1), index.dateAt(0));
+        assertEquals("Tag der Arbeit", index.localNameAt(3));
+    }
+
+    @Test
+    void endOnOrBefore_isInclusiveBinarySearch() {
+        HolidayIndex index = HolidayIndex.build(2024, List.of(y2024, y2025));
+
+        assertEquals(0, index.endOnOrBefore(LocalDate.of(2023, 12, 31)));
+        assertEquals(1, index.endOnOrBefore(LocalDate.of(2024, 1, 1)));
+        assertEquals(2, index.endOnOrBefore(LocalDate.of(2024, 12, 31)));
+        assertEquals(3, index.endOnOrBefore(LocalDate.of(2025, 1, 1)));
+        assertEquals(4, index.endOnOrBefore(LocalDate.of(2030, 1, 1)));
+        int next = index.endOnOrBefore(LocalDate.of(2024, 12, 25));
+        assertEquals("New Year", index.nameAt(next));
+        assertEquals(LocalDate.of(2025, 1, 1), index.dateAt(next));
+    }
+
+    @Test
+    void registry_reusesIndexWhileSourceListsAreUnchanged() {
+        HolidayIndexRegistry registry = new HolidayIndexRegistry();
+
+        HolidayIndex first = registry.get("DE", 2024, 2025, y -> y == 2024 ? y2024 : y2025);
+        HolidayIndex second = registry.get("DE", 2024, 2025, y -> y == 2024 ? y2024 : y2025);
+        HolidayIndex refreshed = registry.get("DE", 2024, 2025, y -> y == 2024 ? y2024 : new ArrayList<>(y2025));
+
+        assertSame(first, second);
+        assertNotSame(first, refreshed);
+    }
+}
@@ -0,0 +1,235 @@
+package com.bingyu.holidays.load;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for Nager.Date serving {@code /AvailableCountries} and
+ * {@code /PublicHolidays/{year}/{country}} from fixtures. Countries come from
+ * the bundled {@code country-codes.json}; holidays from
+ * {@code nager/public-holidays.json}, whose {@code "*"} entry is the template
+ * for countries without their own.
+ *
+ * <p>Latency, jitter, the 5xx rate and the 429 rate can be changed while the
+ * server runs, so a test can degrade the upstream mid-way.
+ */
+public class FakeNagerServer implements Closeable {
+
+    private static final Pattern HOLIDAYS_PATH = Pattern.compile("/PublicHolidays/(\\d{1,4})/([A-Za-z]{2})");
+    private static final String FALLBACK_TEMPLATE = "*";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "fake-nager");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final byte[] availableCountries;
+    private final Set<String> countries;
+    private final Map<String, List<HolidayTemplate>> templates;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration jitter = Duration.ZERO;
+    private volatile double errorRate;
+    private volatile double tooManyRequestsRate;
+
+    public FakeNagerServer() {
+        try {
+            availableCountries = readResource("/country-codes.json");
+            countries = new LinkedHashSet<>();
+            for (Map<String, String> country : mapper.readValue(availableCountries,
+                    new TypeReference<List<Map<String, String>>>() { })) {
+                countries.add(country.get("countryCode"));
+            }
+            templates = mapper.readValue(readResource("/nager/public-holidays.json"),
+                    new TypeReference<Map<String, List<HolidayTemplate>>>() { });
+
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 512);
+            server.createContext("/", this::handle);
+            server.setExecutor(executor);
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Base URL to use as {@code nager.api.base-url}. */
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public Set<String> countries() {
+        return Set.copyOf(countries);
+    }
+
+    public FakeNagerServer latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /** Adds a uniformly distributed extra delay between zero and {@code jitter}. */
+    public FakeNagerServer jitter(Duration jitter) {
+        this.jitter = jitter;
+        return this;
+    }
+
+    /** Fraction of requests, 0 to 1, answered with a 503. */
+    public FakeNagerServer errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /** Fraction of requests, 0 to 1, answered with a 429 and {@code Retry-After: 1}. */
+    public FakeNagerServer tooManyRequestsRate(double tooManyRequestsRate) {
+        this.tooManyRequestsRate = tooManyRequestsRate;
+        return this;
+    }
+
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    public long errorCount() {
+        return errors.sum();
+    }
+
+    public long tooManyRequestsCount() {
+        return throttled.sum();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.increment();
+            delay();
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < tooManyRequestsRate) {
+                throttled.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                exchange.sendResponseHeaders(429, -1);
+                return;
+            }
+            if (roll < tooManyRequestsRate + errorRate) {
+                errors.increment();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            if (path.endsWith("/AvailableCountries")) {
+                send(exchange, availableCountries);
+                return;
+            }
+            Matcher matcher = HOLIDAYS_PATH.matcher(path);
+            if (!matcher.find()) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            int year = Integer.parseInt(matcher.group(1));
+            String country = matcher.group(2).toUpperCase();
+            if (year < 1975 || year > 2075) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            if (!countries.contains(country)) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            send(exchange, mapper.writeValueAsBytes(holidays(year, country)));
+        }
+    }
+
+    private void delay() {
+        long millis = latency.toMillis();
+        long jitterMillis = jitter.toMillis();
+        if (jitterMillis > 0) {
+            millis += ThreadLocalRandom.current().nextLong(jitterMillis + 1);
+        }
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Builds the response in the full Nager.Date shape, including the fields
+     * the service ignores, so the client parses realistic payloads.
+     */
+    private List<Map<String, Object>> holidays(int year, String country) {
+        List<HolidayTemplate> template = templates.getOrDefault(country, templates.get(FALLBACK_TEMPLATE));
+        List<Map<String, Object>> holidays = new ArrayList<>(template.size());
+        for (HolidayTemplate holiday : template) {
+            Map<String, Object> json = new HashMap<>();
+            json.put("date", LocalDate.parse(year + "-" + holiday.date()).toString());
+            json.put("localName", holiday.localName());
+            json.put("name", holiday.name());
+            json.put("countryCode", country);
+            json.put("fixed", false);
+            json.put("global", true);
+            json.put("counties", null);
+            json.put("launchYear", null);
+            json.put("types", List.of("Public"));
+            holidays.add(json);
+        }
+        return holidays;
+    }
+
+    private static void send(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static byte[] readResource(String name) throws IOException {
+        try (InputStream in = FakeNagerServer.class.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IOException("Missing fixture " + name);
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /** A holiday as month-day, e.g. {@code 12-25}, repeated every year. */
+    record HolidayTemplate(String date, String name, String localName) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.bingyu.holidays.load;
+
+import com.bingyu.holidays.client.HolidayJsonReader;
+import com.bingyu.holidays.model.Holiday;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FakeNagerServerTest {
+
+    private final FakeNagerServer server = new FakeNagerServer();
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private HttpResponse<byte[]> get(String path) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(server.baseUrl() + path)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    @Test
+    void servesAvailableCountries() throws Exception {
+        HttpResponse<byte[]> response = get("/AvailableCountries");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(new String(response.body()).contains("\"countryCode\""));
+        assertTrue(server.countries().contains("US"));
+    }
+
+    @Test
+    void servesHolidaysFromFixtures() throws Exception {
+        HttpResponse<byte[]> response = get("/PublicHolidays/2025/US");
+
+        assertEquals(200, response.statusCode());
+        List<Holiday> holidays = HolidayJsonReader.read(response.body());
+        assertEquals(9, holidays.size());
+        assertEquals(new Holiday(LocalDate.of(2025, 7, 4), "Independence Day", "Independence Day"),
+                holidays.get(4));
+    }
+
+    @Test
+    void usesTheFallbackTemplateForOtherCountries() throws Exception {
+        List<Holiday> holidays = HolidayJsonReader.read(get("/PublicHolidays/2024/AD").body());
+
+        assertEquals(4, holidays.size());
+        assertEquals(LocalDate.of(2024, 12, 26), holidays.get(3).getDate());
+    }
+
+    @Test
+    void rejectsUnknownCountriesAndYears() throws Exception {
+        assertEquals(404, get("/PublicHolidays/2025/ZZ").statusCode());
+        assertEquals(400, get("/PublicHolidays/1800/US").statusCode());
+    }
+
+    @Test
+    void injectsFailures() throws Exception {
+        server.tooManyRequestsRate(1.0);
+        HttpResponse<byte[]> throttled = get("/PublicHolidays/2025/US");
+        assertEquals(429, throttled.statusCode());
+        assertEquals("1", throttled.headers().firstValue("Retry-After").orElseThrow());
+
+        server.tooManyRequestsRate(0).errorRate(1.0);
+        assertEquals(503, get("/PublicHolidays/2025/US").statusCode());
+
+        assertEquals(2, server.requestCount());
+        assertEquals(1, server.tooManyRequestsCount());
+        assertEquals(1, server.errorCount());
+    }
+
+    @Test
+    void addsLatency() throws Exception {
+        server.latency(Duration.ofMillis(100));
+
+        long start = System.nanoTime();
+        get("/PublicHolidays/2025/DE");
+
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(100).toNanos());
+    }
+}
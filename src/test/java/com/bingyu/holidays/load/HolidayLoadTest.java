@@ -0,0 +1,213 @@
+package com.bingyu.holidays.load;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the full application against a {@link FakeNagerServer} and reports
+ * latency percentiles and throughput per endpoint. Excluded from the default
+ * build; run it with {@code mvn test -Pload}, tuned through system properties:
+ *
+ * <ul>
+ *   <li>{@code load.duration} (30s) and {@code load.warmup} (5s)</li>
+ *   <li>{@code load.concurrency} (16) client threads</li>
+ *   <li>{@code load.latency} (50ms) and {@code load.jitter} (50ms) added by the fake upstream</li>
+ *   <li>{@code load.error-rate} (0.01) 503s and {@code load.too-many-requests-rate} (0.01) 429s</li>
+ *   <li>{@code load.max-error-ratio} (0.05) of failed responses before the run fails</li>
+ * </ul>
+ *
+ * <p>The report is printed and written to {@code target/load-test-report.txt}.
+ */
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class HolidayLoadTest {
+
+    private static final List<String> COUNTRIES = List.of("US", "DE", "FR", "GB", "AT", "NL", "ES", "IT");
+
+    private static final FakeNagerServer UPSTREAM = new FakeNagerServer()
+            .latency(duration("load.latency", "50ms"))
+            .jitter(duration("load.jitter", "50ms"))
+            .errorRate(Double.parseDouble(System.getProperty("load.error-rate", "0.01")))
+            .tooManyRequestsRate(Double.parseDouble(System.getProperty("load.too-many-requests-rate", "0.01")));
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("nager.api.base-url", UPSTREAM::baseUrl);
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        UPSTREAM.close();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void reportsLatencyPerEndpoint() throws Exception {
+        Duration warmup = duration("load.warmup", "5s");
+        Duration duration = duration("load.duration", "30s");
+        int concurrency = Integer.getInteger("load.concurrency", 16);
+        double maxErrorRatio = Double.parseDouble(System.getProperty("load.max-error-ratio", "0.05"));
+
+        run(warmup, concurrency, new LinkedHashMap<>());
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        endpoints().keySet().forEach(name -> recorders.put(name, new LatencyRecorder()));
+        long upstreamBefore = UPSTREAM.requestCount();
+        run(duration, concurrency, recorders);
+
+        String report = report(recorders, duration, concurrency, UPSTREAM.requestCount() - upstreamBefore);
+        System.out.println(report);
+        Path file = Path.of("target", "load-test-report.txt");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, report);
+
+        long total = 0;
+        long errors = 0;
+        for (LatencyRecorder recorder : recorders.values()) {
+            LatencyRecorder.Summary summary = recorder.summarize();
+            total += summary.count();
+            errors += summary.errors();
+        }
+        assertTrue(total > 0, "no requests completed");
+        assertTrue(errors <= total * maxErrorRatio,
+                "error ratio " + (double) errors / total + " above " + maxErrorRatio);
+    }
+
+    /** Endpoint name to a generator of random request paths for it. */
+    private static Map<String, Function<ThreadLocalRandom, String>> endpoints() {
+        int currentYear = LocalDate.now().getYear();
+        Map<String, Function<ThreadLocalRandom, String>> endpoints = new LinkedHashMap<>();
+        endpoints.put("last-three", random -> "/holidays/last-three?country=" + country(random));
+        endpoints.put("weekday-count", random -> "/holidays/weekday-count?year=" + year(random, currentYear)
+                + "&countries=" + country(random) + "," + country(random));
+        endpoints.put("weekday-count/range", random -> {
+            int from = year(random, currentYear);
+            return "/holidays/weekday-count/range?fromYear=" + from + "&toYear=" + (from + 2)
+                    + "&countries=" + country(random) + "," + country(random);
+        });
+        endpoints.put("common", random -> "/holidays/common?year=" + year(random, currentYear)
+                + "&countryA=" + country(random) + "&countryB=" + country(random));
+        endpoints.put("range", random -> {
+            int year = year(random, currentYear);
+            return "/holidays/range?from=" + year + "-03-01&to=" + (year + 1) + "-02-28&countries="
+                    + country(random) + "," + country(random);
+        });
+        return endpoints;
+    }
+
+    private static String country(ThreadLocalRandom random) {
+        return COUNTRIES.get(random.nextInt(COUNTRIES.size()));
+    }
+
+    private static int year(ThreadLocalRandom random, int currentYear) {
+        return currentYear - 3 + random.nextInt(5);
+    }
+
+    /**
+     * Runs {@code concurrency} closed-loop clients for {@code duration}, each
+     * picking a random endpoint per request. Endpoints without a recorder are
+     * still exercised but not measured, which is how the warm-up works.
+     */
+    private void run(Duration duration, int concurrency, Map<String, LatencyRecorder> recorders)
+            throws InterruptedException {
+        List<Map.Entry<String, Function<ThreadLocalRandom, String>>> endpoints = new ArrayList<>(endpoints().entrySet());
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Thread> clients = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Thread client = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    Map.Entry<String, Function<ThreadLocalRandom, String>> endpoint =
+                            endpoints.get(random.nextInt(endpoints.size()));
+                    long start = System.nanoTime();
+                    boolean success = send(endpoint.getValue().apply(random));
+                    LatencyRecorder recorder = recorders.get(endpoint.getKey());
+                    if (recorder != null) {
+                        recorder.record(System.nanoTime() - start, success);
+                    }
+                }
+            }, "load-client-" + i);
+            client.start();
+            clients.add(client);
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+    }
+
+    private boolean send(String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String report(Map<String, LatencyRecorder> recorders, Duration duration, int concurrency,
+                                 long upstreamRequests) {
+        double seconds = duration.toMillis() / 1000.0;
+        StringBuilder report = new StringBuilder()
+                .append(String.format("Load test: %d clients for %ss, upstream latency %s + jitter %s, "
+                                + "error rate %s, 429 rate %s%n", concurrency, seconds,
+                        System.getProperty("load.latency", "50ms"), System.getProperty("load.jitter", "50ms"),
+                        System.getProperty("load.error-rate", "0.01"),
+                        System.getProperty("load.too-many-requests-rate", "0.01")))
+                .append(String.format("%-22s %9s %7s %9s %9s %9s %9s %9s%n",
+                        "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (Map.Entry<String, LatencyRecorder> entry : recorders.entrySet()) {
+            LatencyRecorder.Summary summary = entry.getValue().summarize();
+            report.append(String.format("%-22s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), summary.count(), summary.errors(), summary.count() / seconds,
+                    millis(summary.percentile(0.50)), millis(summary.percentile(0.99)),
+                    millis(summary.percentile(0.999)), millis(summary.max())));
+        }
+        return report.append(String.format("Upstream requests: %d (%.1f/s)%n", upstreamRequests,
+                upstreamRequests / seconds)).toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+}
@@ -0,0 +1,47 @@
+package com.bingyu.holidays.load;
+
+import java.util.Arrays;
+
+/**
+ * Collects response times of one endpoint from many threads and summarises
+ * them. Samples are kept exactly, which is fine for load runs of a few
+ * minutes; percentiles use the nearest-rank method.
+ */
+class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int size;
+    private long errors;
+
+    synchronized void record(long nanos, boolean success) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    synchronized Summary summarize() {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        return new Summary(size, errors, sorted);
+    }
+
+    record Summary(int count, long errors, long[] sorted) {
+
+        /** Nanoseconds at {@code quantile}, 0 to 1, or 0 without samples. */
+        long percentile(double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+        }
+
+        long max() {
+            return sorted.length == 0 ? 0 : sorted[sorted.length - 1];
+        }
+    }
+}
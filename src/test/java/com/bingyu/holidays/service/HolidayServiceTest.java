@@ -1,28 +1,49 @@
 package com.bingyu.holidays.service;
 
+import com.bingyu.holidays.cache.LastKnownGoodStore;
 import com.bingyu.holidays.client.HolidayApiClient;
 import com.bingyu.holidays.config.CountryCodeLoader;
+import com.bingyu.holidays.dto.BatchQuery;
+import com.bingyu.holidays.dto.BatchQueryType;
+import com.bingyu.holidays.dto.BatchResult;
 import com.bingyu.holidays.dto.CountryHolidayCount;
-import com.bingyu.holidays.dto.HolidayMapper;
+import com.bingyu.holidays.dto.CountryHolidayDTO;
 import com.bingyu.holidays.dto.LastHolidayDTO;
+import com.bingyu.holidays.dto.YearlyHolidayCount;
 import com.bingyu.holidays.exception.InvalidCountryCodeException;
+import com.bingyu.holidays.exception.InvalidRangeException;
+import com.bingyu.holidays.index.CommonHolidayRegistry;
+import com.bingyu.holidays.index.HolidayCalendarRegistry;
+import com.bingyu.holidays.index.HolidayIndexRegistry;
 import com.bingyu.holidays.model.Holiday;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.any;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,21 +54,13 @@ public class HolidayServiceTest {
     private HolidayApiClient apiClient;
     @Mock
     private CountryCodeLoader codeLoader;
-    @Mock
-    private HolidayMapper mapper;
-    @InjectMocks
     private HolidayService service;
 
     private final Executor directExecutor = Runnable::run;
 
     @BeforeEach
     void setUp() {
-        service = new HolidayService(apiClient, mapper, directExecutor, codeLoader);
-        when(mapper.toLastHolidayDTO(any(Holiday.class)))
-                .thenAnswer(inv -> {
-                    Holiday h = inv.getArgument(0);
-                    return new LastHolidayDTO(h.getDate(), h.getName());
-                });
+        service = new HolidayService(apiClient, new HolidayIndexRegistry(), new HolidayCalendarRegistry(), new CommonHolidayRegistry(), directExecutor, codeLoader, 4, 10);
     }
 
     @Test
@@ -74,6 +87,82 @@ public class HolidayServiceTest {
                 () -> service.getLastThreeHolidays("ZZ"));
     }
 
+    @Test
+    void holidaysBetween_mergesCountriesAndYearsInDateOrder() {
+        when(codeLoader.isValid(anyString())).thenReturn(true);
+        when(apiClient.fetchHolidays(2024, "US")).thenReturn(List.of(
+                new Holiday(LocalDate.of(2024, 7, 4), "Independence Day", "Independence Day"),
+                new Holiday(LocalDate.of(2024, 12, 25), "Christmas Day", "Christmas Day")));
+        when(apiClient.fetchHolidays(2024, "DE")).thenReturn(List.of(
+                new Holiday(LocalDate.of(2024, 12, 25), "Christmas Day", "Weihnachtstag"),
+                new Holiday(LocalDate.of(2024, 10, 3), "German Unity Day", "Tag der Deutschen Einheit")));
+        when(apiClient.fetchHolidays(2025, "US")).thenReturn(List.of(
+                new Holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "New Year's Day"),
+                new Holiday(LocalDate.of(2025, 7, 4), "Independence Day", "Independence Day")));
+        when(apiClient.fetchHolidays(2025, "DE")).thenReturn(List.of(
+                new Holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "Neujahr")));
+
+        List<CountryHolidayDTO> result = service.holidaysBetween(
+                LocalDate.of(2024, 8, 1), LocalDate.of(2025, 6, 30), List.of("US", "DE")).toList();
+
+        assertEquals(List.of(
+                new CountryHolidayDTO(LocalDate.of(2024, 10, 3), "DE", "German Unity Day", "Tag der Deutschen Einheit"),
+                new CountryHolidayDTO(LocalDate.of(2024, 12, 25), "US", "Christmas Day", "Christmas Day"),
+                new CountryHolidayDTO(LocalDate.of(2024, 12, 25), "DE", "Christmas Day", "Weihnachtstag"),
+                new CountryHolidayDTO(LocalDate.of(2025, 1, 1), "US", "New Year's Day", "New Year's Day"),
+                new CountryHolidayDTO(LocalDate.of(2025, 1, 1), "DE", "New Year's Day", "Neujahr")), result);
+    }
+
+    @Test
+    void holidaysBetween_rejectsInvertedOrTooLongRanges() {
+        when(codeLoader.isValid(anyString())).thenReturn(true);
+        assertThrows(InvalidRangeException.class, () -> service.holidaysBetween(
+                LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), List.of("US")));
+        assertThrows(InvalidRangeException.class, () -> service.holidaysBetween(
+                LocalDate.of(2000, 1, 1), LocalDate.of(2025, 1, 1), List.of("US")));
+        verify(apiClient, times(0)).fetchHolidays(anyInt(), anyString());
+    }
+
+    @Test
+    void countWeekdayHolidays_tooLongYearRange_isRejectedBeforeAnyLookup() {
+        when(codeLoader.isValid(anyString())).thenReturn(true);
+        assertThrows(InvalidRangeException.class,
+                () -> service.countWeekdayHolidays(1900, 2025, List.of("US", "DE")));
+        assertThrows(InvalidRangeException.class,
+                () -> service.countWeekdayHolidays(-999_999_999, 999_999_999, List.of("US")));
+        verifyNoInteractions(apiClient);
+    }
+
+    @Test
+    void yearsOutsideTheDateRange_areRejected() {
+        when(codeLoader.isValid(anyString())).thenReturn(true);
+        assertThrows(InvalidRangeException.class, () -> service.countWeekdayHolidays(1_000_000_000, List.of("US")));
+        assertThrows(InvalidRangeException.class, () -> service.findCommonHolidays(Integer.MIN_VALUE, List.of("US", "DE")));
+        assertThrows(InvalidRangeException.class,
+                () -> service.countWeekdayHolidays(Integer.MAX_VALUE - 1, Integer.MAX_VALUE, List.of("US")));
+        verify(apiClient, times(0)).fetchHolidays(anyInt(), anyString());
+    }
+
+    @Test
+    void countWeekdayHolidays_overYearRange_groupsByYear() {
+        when(codeLoader.isValid(anyString())).thenReturn(true);
+        LocalDate monday = LocalDate.of(2024, 6, 24);
+        when(apiClient.fetchHolidays(2024, "US")).thenReturn(List.of(new Holiday(monday, "Mon", "Mon")));
+        when(apiClient.fetchHolidays(2024, "DE")).thenReturn(List.of());
+        when(apiClient.fetchHolidays(2025, "US")).thenReturn(List.of());
+        when(apiClient.fetchHolidays(2025, "DE")).thenReturn(List.of(
+                new Holiday(LocalDate.of(2025, 6, 23), "Mon", "Mon"),
+                new Holiday(LocalDate.of(2025, 6, 24), "Tue", "Tue")));
+
+        List<YearlyHolidayCount> counts = service.countWeekdayHolidays(2024, 2025, List.of("DE", "US"));
+
+        assertEquals(List.of(
+                new YearlyHolidayCount(2024, "US", 1),
+                new YearlyHolidayCount(2024, "DE", 0),
+                new YearlyHolidayCount(2025, "DE", 2),
+                new YearlyHolidayCount(2025, "US", 0)), counts);
+    }
+
     @Test
     void countWeekdayHolidays_filtersWeekends() {
         when(codeLoader.isValid("US")).thenReturn(true);
@@ -105,6 +194,23 @@ public class HolidayServiceTest {
         assertEquals(d, common.get(0).getDate());
     }
 
+    @Test
+    void findCommonHolidays_reusesResultUntilSourceListChanges() {
+        when(codeLoader.isValid(anyString())).thenReturn(true);
+        LocalDate d = LocalDate.of(2025, 1, 1);
+        List<Holiday> listA = List.of(new Holiday(d, "NameA", "LocalA"));
+        when(apiClient.fetchHolidays(2025, "A")).thenReturn(listA);
+        when(apiClient.fetchHolidays(2025, "B")).thenReturn(List.of(new Holiday(d, "NameB", "LocalB")));
+
+        List<LastHolidayDTO> first = service.findCommonHolidays(2025, "A", "B");
+        assertSame(first, service.findCommonHolidays(2025, "A", "B"));
+
+        when(apiClient.fetchHolidays(2025, "A")).thenReturn(List.of(new Holiday(d, "NameA", "Renamed")));
+        List<LastHolidayDTO> changed = service.findCommonHolidays(2025, "A", "B");
+        assertNotSame(first, changed);
+        assertEquals("Renamed", changed.get(0).getName());
+    }
+
     @Test
     void getLastThreeHolidays_whenThisYearLessThanThree_backfillsFromLastYear() {
         when(codeLoader.isValid("US")).thenReturn(true);
@@ -146,4 +252,165 @@ public class HolidayServiceTest {
         assertEquals(l3.getDate(), dtos.get(2).getDate());
     }
 
+    @Test
+    void getLastThreeHolidays_withDate_includesHolidayOnThatDate() {
+        when(codeLoader.isValid("US")).thenReturn(true);
+        LocalDate date = LocalDate.of(2024, 7, 4);
+        when(apiClient.fetchHolidays(2024, "US")).thenReturn(List.of(
+                new Holiday(LocalDate.of(2024, 1, 1), "NY", "NY"),
+                new Holiday(LocalDate.of(2024, 12, 25), "XMAS", "XMAS"),
+                new Holiday(LocalDate.of(2024, 5, 27), "MEM", "MEM"),
+                new Holiday(date, "IND", "IND")));
+
+        List<LastHolidayDTO> dtos = service.getLastThreeHolidays("US", date);
+        assertEquals(List.of("IND", "MEM", "NY"), dtos.stream().map(LastHolidayDTO::getName).toList());
+    }
+
+    @Test
+    void findCommonHolidays_acrossThreeCountries_returnsDatesInAll() {
+        when(codeLoader.isValid(anyString())).thenReturn(true);
+        LocalDate newYear = LocalDate.of(2025, 1, 1);
+        LocalDate christmas = LocalDate.of(2025, 12, 25);
+        when(apiClient.fetchHolidays(2025, "A")).thenReturn(List.of(
+                new Holiday(newYear, "NY", "LocalNY"), new Holiday(christmas, "X", "LocalX")));
+        when(apiClient.fetchHolidays(2025, "B")).thenReturn(List.of(
+                new Holiday(christmas, "X", "OtherX"), new Holiday(newYear, "NY", "OtherNY")));
+        when(apiClient.fetchHolidays(2025, "C")).thenReturn(List.of(
+                new Holiday(christmas, "X", "ThirdX")));
+
+        List<LastHolidayDTO> common = service.findCommonHolidays(2025, List.of("A", "B", "C"));
+        assertEquals(List.of(new LastHolidayDTO(christmas, "LocalX")), common);
+    }
+
+    @Test
+    void countWeekdayHolidays_countsEveryWeekdayEntry() {
+        when(codeLoader.isValid("AU")).thenReturn(true);
+        LocalDate monday = LocalDate.of(2025, 6, 9);
+        when(apiClient.fetchHolidays(2025, "AU")).thenReturn(List.of(
+                new Holiday(monday, "King's Birthday", "King's Birthday"),
+                new Holiday(monday, "Regional", "Regional"),
+                new Holiday(monday.minusDays(1), "Sun", "Sun")));
+
+        List<CountryHolidayCount> counts = service.countWeekdayHolidays(2025, List.of("AU"));
+        assertEquals(2, counts.get(0).getWeekdayHolidayCount());
+    }
+
+    @Test
+    void batch_fetchesEachYearAndCountryOnceAndReportsErrorsPerQuery() {
+        when(codeLoader.isValid(anyString())).thenReturn(true);
+        when(codeLoader.isValid("ZZ")).thenReturn(false);
+        LocalDate monday = LocalDate.of(2025, 6, 23);
+        when(apiClient.fetchHolidays(2025, "US")).thenReturn(List.of(
+                new Holiday(LocalDate.of(2025, 1, 1), "NY", "NY"), new Holiday(monday, "Mon", "Mon")));
+        when(apiClient.fetchHolidays(2025, "DE")).thenReturn(List.of(
+                new Holiday(LocalDate.of(2025, 1, 1), "NY", "Neujahr")));
+
+        List<BatchResult> results = service.batch(List.of(
+                new BatchQuery("a", BatchQueryType.LAST_THREE, "US", LocalDate.of(2025, 7, 1), null, null),
+                new BatchQuery("b", BatchQueryType.WEEKDAY_COUNT, null, null, 2025, List.of("US", "DE")),
+                new BatchQuery("c", BatchQueryType.COMMON, null, null, 2025, List.of("DE", "US")),
+                new BatchQuery("d", BatchQueryType.COMMON, null, null, 2025, List.of("US", "ZZ")),
+                new BatchQuery("e", BatchQueryType.WEEKDAY_COUNT, null, null, null, List.of("US"))));
+
+        assertEquals(List.of("a", "b", "c", "d", "e"), results.stream().map(BatchResult::getId).toList());
+        assertEquals(2, ((List<?>) results.get(0).getResult()).size());
+        assertEquals(List.of(new CountryHolidayCount("US", 2), new CountryHolidayCount("DE", 1)),
+                results.get(1).getResult());
+        assertEquals(List.of(new LastHolidayDTO(LocalDate.of(2025, 1, 1), "Neujahr")), results.get(2).getResult());
+        assertEquals("Invalid country code: ZZ", results.get(3).getError());
+        assertNull(results.get(3).getResult());
+        assertEquals("year is required", results.get(4).getError());
+        verify(apiClient, times(1)).fetchHolidays(2025, "US");
+        verify(apiClient, times(1)).fetchHolidays(2025, "DE");
+    }
+
+    @Test
+    void batch_upstreamFailureOnlyFailsQueriesThatNeedIt() {
+        when(codeLoader.isValid(anyString())).thenReturn(true);
+        when(apiClient.fetchHolidays(2025, "US")).thenThrow(new IllegalStateException("upstream down"));
+        when(apiClient.fetchHolidays(2025, "DE")).thenReturn(List.of());
+
+        List<BatchResult> results = service.batch(List.of(
+                new BatchQuery("us", BatchQueryType.WEEKDAY_COUNT, null, null, 2025, List.of("US")),
+                new BatchQuery("de", BatchQueryType.WEEKDAY_COUNT, null, null, 2025, List.of("DE"))));
+
+        assertEquals("upstream down", results.get(0).getError());
+        assertEquals(List.of(new CountryHolidayCount("DE", 0)), results.get(1).getResult());
+    }
+
+    @Test
+    void batch_lastThreePrefetchesThePreviousYear() {
+        when(codeLoader.isValid(anyString())).thenReturn(true);
+        when(apiClient.fetchHolidays(2025, "US")).thenReturn(List.of(
+                new Holiday(LocalDate.of(2025, 1, 1), "NY", "NY")));
+        when(apiClient.fetchHolidays(2024, "US")).thenReturn(List.of(
+                new Holiday(LocalDate.of(2024, 11, 28), "Thanksgiving", "Thanksgiving"),
+                new Holiday(LocalDate.of(2024, 12, 25), "Christmas", "Christmas")));
+
+        List<BatchResult> results = service.batch(List.of(
+                new BatchQuery("us", BatchQueryType.LAST_THREE, "US", LocalDate.of(2025, 2, 1), null, null),
+                new BatchQuery("de", BatchQueryType.WEEKDAY_COUNT, null, null, 2025, List.of("DE"))));
+
+        assertEquals(3, ((List<?>) results.get(0).getResult()).size());
+        InOrder fetches = inOrder(apiClient);
+        fetches.verify(apiClient).fetchHolidays(2024, "US");
+        fetches.verify(apiClient).fetchHolidays(2025, "DE");
+        verify(apiClient, times(1)).fetchHolidays(2024, "US");
+    }
+
+    @Test
+    void batch_errorsWithoutAMessageStillFailTheirQuery() {
+        when(codeLoader.isValid(anyString())).thenReturn(true);
+        when(codeLoader.isValid("XX")).thenThrow(new IllegalStateException());
+        when(apiClient.fetchHolidays(2025, "US")).thenThrow(new IllegalStateException());
+
+        List<BatchResult> results = service.batch(List.of(
+                new BatchQuery("invalid", BatchQueryType.WEEKDAY_COUNT, null, null, 2025, List.of("XX")),
+                new BatchQuery("failed", BatchQueryType.WEEKDAY_COUNT, null, null, 2025, List.of("US"))));
+
+        assertEquals("IllegalStateException", results.get(0).getError());
+        assertNull(results.get(0).getResult());
+        assertEquals("IllegalStateException", results.get(1).getError());
+        verify(apiClient, times(0)).fetchHolidays(2025, "XX");
+    }
+
+    @Test
+    void degradedKeys_listOnlyTheFallbackListsThisCallRead(@TempDir Path dir) {
+        LastKnownGoodStore lastKnownGood = new LastKnownGoodStore(dir.resolve("lkg.bin"));
+        when(codeLoader.isValid(anyString())).thenReturn(true);
+        when(apiClient.fetchHolidays(2025, "US")).thenReturn(List.of(
+                new Holiday(LocalDate.of(2025, 1, 1), "NY", "NY"),
+                new Holiday(LocalDate.of(2025, 1, 20), "MLK", "MLK"),
+                new Holiday(LocalDate.of(2025, 2, 17), "Presidents", "Presidents")));
+        when(apiClient.fetchHolidays(2025, "FR")).thenReturn(lastKnownGood.fallback(2025, "FR"));
+        // Another request fell back for last year, which a March date does not need.
+        when(apiClient.fetchHolidays(2024, "US")).thenReturn(lastKnownGood.fallback(2024, "US"));
+
+        DegradedKeys lastThree = new DegradedKeys();
+        service.getLastThreeHolidays("US", LocalDate.of(2025, 3, 1), lastThree);
+        DegradedKeys counts = new DegradedKeys();
+        service.countWeekdayHolidays(2025, List.of("US", "FR"), counts);
+
+        assertTrue(lastThree.isEmpty());
+        assertEquals(List.of("2025-FR"), counts.keys());
+    }
+
+    @Test
+    void batch_marksOnlyResultsBuiltFromFallbackData(@TempDir Path dir) {
+        LastKnownGoodStore lastKnownGood = new LastKnownGoodStore(dir.resolve("lkg.bin"));
+        when(codeLoader.isValid(anyString())).thenReturn(true);
+        when(apiClient.fetchHolidays(2025, "US")).thenReturn(List.of(
+                new Holiday(LocalDate.of(2025, 1, 1), "NY", "NY"),
+                new Holiday(LocalDate.of(2025, 1, 20), "MLK", "MLK"),
+                new Holiday(LocalDate.of(2025, 2, 17), "Presidents", "Presidents")));
+        when(apiClient.fetchHolidays(2024, "US")).thenReturn(lastKnownGood.fallback(2024, "US"));
+        when(apiClient.fetchHolidays(2025, "FR")).thenReturn(lastKnownGood.fallback(2025, "FR"));
+
+        List<BatchResult> results = service.batch(List.of(
+                new BatchQuery("us", BatchQueryType.LAST_THREE, "US", LocalDate.of(2025, 3, 1), null, null),
+                new BatchQuery("fr", BatchQueryType.WEEKDAY_COUNT, null, null, 2025, List.of("US", "FR"))));
+
+        assertNull(results.get(0).getDegraded());
+        assertEquals(List.of("2025-FR"), results.get(1).getDegraded());
+    }
 }
@@ -0,0 +1,183 @@
+package com.bingyu.holidays.service;
+
+import com.bingyu.holidays.cache.LastKnownGoodStore;
+import com.bingyu.holidays.client.ReactiveHolidayApiClient;
+import com.bingyu.holidays.config.CountryCodeLoader;
+import com.bingyu.holidays.dto.CountryHolidayCount;
+import com.bingyu.holidays.dto.LastHolidayDTO;
+import com.bingyu.holidays.exception.InvalidCountryCodeException;
+import com.bingyu.holidays.exception.InvalidRangeException;
+import com.bingyu.holidays.index.CommonHolidayRegistry;
+import com.bingyu.holidays.index.HolidayCalendarRegistry;
+import com.bingyu.holidays.index.HolidayIndexRegistry;
+import com.bingyu.holidays.model.Holiday;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ReactiveHolidayServiceTest {
+
+    @Mock
+    private ReactiveHolidayApiClient apiClient;
+    @Mock
+    private CountryCodeLoader codeLoader;
+
+    private ReactiveHolidayService service;
+
+    private final LocalDate today = LocalDate.of(2025, 6, 22);
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(today.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        service = new ReactiveHolidayService(apiClient, new HolidayIndexRegistry(), new HolidayCalendarRegistry(),
+                new CommonHolidayRegistry(), codeLoader, 16, 10, clock);
+        when(codeLoader.isValid(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void getLastThreeHolidays_enoughThisYear_skipsLastYear() {
+        when(apiClient.fetchHolidays(2025, "US")).thenReturn(Mono.just(List.of(
+                new Holiday(today.minusDays(4), "H4", "H4"),
+                new Holiday(today.minusDays(1), "H1", "H1"),
+                new Holiday(today.plusDays(1), "Future", "Future"),
+                new Holiday(today.minusDays(3), "H3", "H3"),
+                new Holiday(today.minusDays(2), "H2", "H2"))));
+
+        StepVerifier.create(service.getLastThreeHolidays("US"))
+                .assertNext(dtos -> assertEquals(List.of("H1", "H2", "H3"),
+                        dtos.stream().map(LastHolidayDTO::getName).toList()))
+                .verifyComplete();
+        verify(apiClient, never()).fetchHolidays(2024, "US");
+    }
+
+    @Test
+    void getLastThreeHolidays_backfillsFromLastYear() {
+        when(apiClient.fetchHolidays(2025, "US")).thenReturn(Mono.just(List.of(
+                new Holiday(today.minusDays(1), "H1", "H1"))));
+        when(apiClient.fetchHolidays(2024, "US")).thenReturn(Mono.just(List.of(
+                new Holiday(LocalDate.of(2024, 11, 28), "LY2", "LY2"),
+                new Holiday(LocalDate.of(2024, 12, 25), "LY1", "LY1"))));
+
+        StepVerifier.create(service.getLastThreeHolidays("US"))
+                .assertNext(dtos -> assertEquals(List.of("H1", "LY1", "LY2"),
+                        dtos.stream().map(LastHolidayDTO::getName).toList()))
+                .verifyComplete();
+    }
+
+    @Test
+    void countWeekdayHolidays_sortsDescending() {
+        LocalDate monday = LocalDate.of(2025, 6, 23);
+        LocalDate sunday = LocalDate.of(2025, 6, 22);
+        when(apiClient.fetchHolidays(2025, "US")).thenReturn(Mono.just(List.of(
+                new Holiday(monday, "Mon", "Mon"), new Holiday(sunday, "Sun", "Sun"))));
+        when(apiClient.fetchHolidays(2025, "DE")).thenReturn(Mono.just(List.of(
+                new Holiday(monday, "Mon", "Mon"), new Holiday(monday.plusDays(1), "Tue", "Tue"))));
+
+        StepVerifier.create(service.countWeekdayHolidays(2025, List.of("US", "DE")))
+                .assertNext(counts -> assertEquals(List.of(
+                        new CountryHolidayCount("DE", 2), new CountryHolidayCount("US", 1)), counts))
+                .verifyComplete();
+    }
+
+    @Test
+    void findCommonHolidays_usesLocalNameOfFirstCountry() {
+        LocalDate d = LocalDate.of(2025, 1, 1);
+        when(apiClient.fetchHolidays(2025, "A")).thenReturn(Mono.just(List.of(new Holiday(d, "NameA", "LocalA"))));
+        when(apiClient.fetchHolidays(2025, "B")).thenReturn(Mono.just(List.of(new Holiday(d, "NameB", "LocalB"))));
+
+        StepVerifier.create(service.findCommonHolidays(2025, "A", "B"))
+                .assertNext(common -> assertEquals(List.of(new LastHolidayDTO(d, "LocalA")), common))
+                .verifyComplete();
+    }
+
+    @Test
+    void findCommonHolidays_acrossThreeCountries_returnsDatesInAll() {
+        LocalDate newYear = LocalDate.of(2025, 1, 1);
+        LocalDate christmas = LocalDate.of(2025, 12, 25);
+        when(apiClient.fetchHolidays(2025, "A")).thenReturn(Mono.just(List.of(
+                new Holiday(christmas, "Christmas", "ChristmasA"), new Holiday(newYear, "NY", "NYA"))));
+        when(apiClient.fetchHolidays(2025, "B")).thenReturn(Mono.just(List.of(
+                new Holiday(newYear, "NY", "NYB"), new Holiday(christmas, "Christmas", "ChristmasB"))));
+        when(apiClient.fetchHolidays(2025, "C")).thenReturn(Mono.just(List.of(
+                new Holiday(christmas, "Christmas", "ChristmasC"))));
+
+        StepVerifier.create(service.findCommonHolidays(2025, List.of("A", "B", "C"), new DegradedKeys()))
+                .assertNext(common -> assertEquals(List.of(new LastHolidayDTO(christmas, "ChristmasA")), common))
+                .verifyComplete();
+    }
+
+    @Test
+    void yearsOutsideTheDateRange_areRejectedBeforeAnyLookup() {
+        assertThrows(InvalidRangeException.class,
+                () -> service.streamWeekdayHolidays(Integer.MAX_VALUE, List.of("US")));
+        assertThrows(InvalidRangeException.class,
+                () -> service.findCommonHolidays(Integer.MIN_VALUE, "US", "DE"));
+        verify(apiClient, never()).fetchHolidays(anyInt(), anyString());
+    }
+
+    @Test
+    void invalidCountry_throwsBeforeSubscribing() {
+        when(codeLoader.isValid("ZZ")).thenReturn(false);
+        assertThrows(InvalidCountryCodeException.class, () -> service.getLastThreeHolidays("ZZ"));
+    }
+
+    @Test
+    void streamWeekdayHolidays_range_emitsEveryYearAndCountry() {
+        LocalDate monday = LocalDate.of(2025, 6, 23);
+        when(apiClient.fetchHolidays(anyInt(), anyString())).thenAnswer(inv -> {
+            int year = inv.getArgument(0);
+            return Mono.just(List.of(new Holiday(monday.withYear(year), "H", "H")));
+        });
+
+        StepVerifier.create(service.streamWeekdayHolidays(2024, 2025, List.of("US", "DE")).collectList())
+                .assertNext(counts -> assertEquals(4, counts.size()))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamWeekdayHolidays_range_recordsFallbackLists(@TempDir Path dir) {
+        LastKnownGoodStore lastKnownGood = new LastKnownGoodStore(dir.resolve("lkg.bin"));
+        when(apiClient.fetchHolidays(anyInt(), anyString())).thenReturn(Mono.just(List.of()));
+        when(apiClient.fetchHolidays(2024, "FR")).thenReturn(Mono.just(lastKnownGood.fallback(2024, "FR")));
+        DegradedKeys degraded = new DegradedKeys();
+
+        StepVerifier.create(service.streamWeekdayHolidays(2024, 2025, List.of("US", "FR"), degraded).count())
+                .expectNext(4L)
+                .verifyComplete();
+        assertEquals(List.of("2024-FR"), degraded.keys());
+    }
+
+    @Test
+    void streamWeekdayHolidays_invalidRange_throws() {
+        assertThrows(InvalidRangeException.class,
+                () -> service.streamWeekdayHolidays(2025, 2024, List.of("US")));
+        assertThrows(InvalidRangeException.class,
+                () -> service.streamWeekdayHolidays(2000, 2025, List.of("US")));
+        assertThrows(InvalidRangeException.class,
+                () -> service.streamWeekdayHolidays(Integer.MIN_VALUE, Integer.MAX_VALUE, List.of("US")));
+        verify(apiClient, never()).fetchHolidays(anyInt(), anyString());
+    }
+}
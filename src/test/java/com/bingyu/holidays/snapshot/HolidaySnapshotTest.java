@@ -0,0 +1,129 @@
+package com.bingyu.holidays.snapshot;
+
+import com.bingyu.holidays.cache.LastKnownGoodStore;
+import com.bingyu.holidays.client.SnapshotHolidayApiClient;
+import com.bingyu.holidays.config.CountryCodeLoader;
+import com.bingyu.holidays.model.Holiday;
+import com.bingyu.holidays.model.HolidayKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HolidaySnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private final Holiday newYear = new Holiday(LocalDate.of(2025, 1, 1), "New Year's Day", "Neujahr");
+    private final Holiday christmas = new Holiday(LocalDate.of(2025, 12, 25), "Christmas Day", "Weihnachtstag");
+
+    @Test
+    void roundTrip_sortsByDateAndSharesNames() throws IOException {
+        Path file = dir.resolve("holidays.bin");
+        HolidaySnapshotWriter.write(file, Map.of(
+                new HolidayKey(2025, "DE"), List.of(christmas, newYear),
+                new HolidayKey(2025, "AT"), List.of(newYear),
+                new HolidayKey(2024, "XX"), List.of()));
+
+        HolidaySnapshot snapshot = HolidaySnapshot.open(file);
+
+        assertEquals(3, snapshot.size());
+        assertEquals(3, snapshot.recordCount());
+        assertEquals(List.of(newYear, christmas), snapshot.get(2025, "DE"));
+        assertEquals(List.of(), snapshot.get(2024, "XX"));
+        assertNull(snapshot.get(2026, "DE"));
+        assertSame(snapshot.get(2025, "DE"), snapshot.get(2025, "DE"));
+        assertSame(snapshot.get(2025, "DE").get(0).getName(), snapshot.get(2025, "AT").get(0).getName());
+    }
+
+    @Test
+    void roundTrip_keepsNullNamesApartFromEmptyOnes() throws IOException {
+        Path file = dir.resolve("holidays.bin");
+        Holiday unnamed = new Holiday(LocalDate.of(2025, 5, 1), null, "Tag der Arbeit");
+        Holiday empty = new Holiday(LocalDate.of(2025, 10, 3), "", null);
+        HolidaySnapshotWriter.write(file, Map.of(new HolidayKey(2025, "DE"), List.of(empty, unnamed)));
+
+        List<Holiday> read = HolidaySnapshot.open(file).get(2025, "DE");
+
+        assertEquals(List.of(unnamed, empty), read);
+        assertNull(read.get(0).getName());
+        assertEquals("", read.get(1).getName());
+        assertNull(read.get(1).getLocalName());
+    }
+
+    @Test
+    void open_rejectsForeignFile() throws IOException {
+        Path file = Files.write(dir.resolve("garbage.bin"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> HolidaySnapshot.open(file));
+    }
+
+    @Test
+    void client_fallsBackToUpstreamOnlyForMissingKeys() throws IOException {
+        Path file = dir.resolve("holidays.bin");
+        HolidaySnapshotWriter.write(file, Map.of(new HolidayKey(2025, "DE"), List.of(newYear)));
+        SnapshotHolidayApiClient client = SnapshotHolidayApiClient.open((year, code) -> List.of(christmas), file);
+
+        assertEquals(List.of(newYear), client.fetchHolidays(2025, "DE"));
+        assertEquals(0, client.getMissCount());
+        assertEquals(List.of(christmas), client.fetchHolidays(2025, "US"));
+        assertEquals(1, client.getMissCount());
+    }
+
+    @Test
+    void refresh_keepsPreviousEntriesWhenUpstreamReturnsNothing() throws IOException {
+        Path file = dir.resolve("holidays.bin");
+        HolidaySnapshotWriter.write(file, Map.of(new HolidayKey(2025, "DE"), List.of(newYear)));
+        SnapshotHolidayApiClient client = SnapshotHolidayApiClient.open((year, code) -> List.of(), file);
+        CountryCodeLoader codeLoader = mock(CountryCodeLoader.class);
+        when(codeLoader.getCodes()).thenReturn(Set.of("DE", "US"));
+        Clock clock = Clock.fixed(LocalDate.of(2025, 6, 1).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        HolidaySnapshotRefresher refresher = new HolidaySnapshotRefresher(
+                (year, code) -> code.equals("US") ? List.of(new Holiday(LocalDate.of(year, 12, 25), "Christmas Day", "Weihnachtstag")) : List.of(),
+                client, codeLoader, file, 0, 1, 1000, clock);
+
+        refresher.refresh();
+
+        HolidaySnapshot refreshed = client.getSnapshot();
+        assertEquals(3, refreshed.size());
+        assertEquals(List.of(newYear), refreshed.get(2025, "DE"));
+        assertEquals(List.of(christmas), refreshed.get(2025, "US"));
+        assertEquals(LocalDate.of(2026, 12, 25), refreshed.get(2026, "US").get(0).getDate());
+    }
+
+    @Test
+    void refresh_ignoresLastKnownGoodFallbacks() throws IOException {
+        Path file = dir.resolve("holidays.bin");
+        HolidaySnapshotWriter.write(file, Map.of(new HolidayKey(2025, "DE"), List.of(newYear)));
+        SnapshotHolidayApiClient client = SnapshotHolidayApiClient.open((year, code) -> List.of(), file);
+        HolidaySnapshot before = client.getSnapshot();
+        CountryCodeLoader codeLoader = mock(CountryCodeLoader.class);
+        when(codeLoader.getCodes()).thenReturn(Set.of("DE"));
+        Clock clock = Clock.fixed(LocalDate.of(2025, 6, 1).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        try (LastKnownGoodStore store = new LastKnownGoodStore(dir.resolve("last-known-good.log"))) {
+            store.put(2025, "DE", List.of(christmas));
+            HolidaySnapshotRefresher refresher = new HolidaySnapshotRefresher(store::fallback,
+                    client, codeLoader, file, 0, 0, 1000, clock);
+
+            refresher.refresh();
+        }
+
+        assertSame(before, client.getSnapshot());
+        assertEquals(List.of(newYear), client.getSnapshot().get(2025, "DE"));
+    }
+}